@@ -1,19 +1,32 @@
 package com.showcase.gametest;
 
+import com.showcase.ShowcaseMod;
+import com.showcase.command.ShareLimitException;
 import com.showcase.command.ShowcaseManager;
+import com.showcase.config.ModConfig;
+import com.showcase.config.ModConfigManager;
+import com.showcase.data.DataStorage;
+import com.showcase.data.JsonCodecDataStorage;
 import com.showcase.data.ShareEntry;
+import com.showcase.data.ShareJournal;
 import com.showcase.data.ShareRepository;
+import com.showcase.data.StreamingMap;
 import com.showcase.utils.ReadOnlyInventory;
 import net.fabricmc.fabric.api.gametest.v1.GameTest;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.screen.ScreenHandlerType;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.test.TestContext;
 import net.minecraft.text.Text;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * Optimized GameTest for data persistence functionality.
@@ -22,6 +35,7 @@ import java.util.*;
 public class DataPersistenceGameTest {
     
     private static final int TEST_DURATION = 300;
+    private static final int JOURNAL_VIEWS = 200;
 
     @GameTest
     public void testRepositoryCoreOperations(TestContext context) {
@@ -105,6 +119,169 @@ public class DataPersistenceGameTest {
         context.complete();
     }
 
+    @GameTest
+    public void testReceiverIndexFollowsReceiverChanges(TestContext context) {
+        ServerPlayerEntity owner = GameTestPlayerUtils.createTestPlayerCalled(context, "owner");
+        ServerPlayerEntity receiver = GameTestPlayerUtils.createTestPlayerCalled(context, "receiver");
+        ShareRepository.clear();
+
+        String shareId = ShareRepository.add(createTestShareEntry(owner, Items.DIAMOND));
+        context.assertTrue(ShareRepository.getReceivedShares(receiver.getUuid()).isEmpty(),
+            Text.of("Receiver should not have received the share yet"));
+
+        context.assertTrue(ShareRepository.addReceiver(shareId, receiver.getUuid()),
+            Text.of("Adding a new receiver should succeed"));
+        context.assertTrue(!ShareRepository.addReceiver(shareId, receiver.getUuid()),
+            Text.of("Adding the same receiver twice should be a no-op"));
+        context.assertTrue(ShareRepository.getReceivedShares(receiver.getUuid()).containsKey(shareId),
+            Text.of("Receiver index should list the share after adding the receiver"));
+        context.assertTrue(ShareRepository.get(shareId).getUuidOfReceiverPlayers().contains(receiver.getUuid()),
+            Text.of("Share should list the added receiver"));
+
+        context.assertTrue(ShareRepository.removeReceiver(shareId, receiver.getUuid()),
+            Text.of("Removing the receiver should succeed"));
+        context.assertTrue(ShareRepository.getReceivedShares(receiver.getUuid()).isEmpty(),
+            Text.of("Receiver index should drop the share after removing the receiver"));
+
+        context.complete();
+    }
+
+    @GameTest
+    public void testEmbeddedStorageRoundTrip(TestContext context) {
+        ServerPlayerEntity player = GameTestPlayerUtils.createTestPlayerCalled(context, "player1");
+        MinecraftServer server = context.getWorld().getServer();
+        DataStorage<Map<String, ShareEntry>> storage = DataStorage.of("showcase_test_embedded",
+            ShowcaseMod.PLAYER_SHARE_ENTRY_CODEC, ModConfig.StorageSettings.Format.EMBEDDED,
+            StreamingMap.root(ShareEntry.SHARE_ENTRY_CODEC));
+
+        try {
+            Map<String, ShareEntry> shares = new HashMap<>();
+            shares.put("embedded-a", createTestShareEntry(player, Items.DIAMOND));
+            shares.put("embedded-b", createTestShareEntry(player, Items.EMERALD));
+            shares.put("embedded-c", createTestShareEntry(player, Items.GOLD_INGOT));
+
+            context.assertTrue(storage.save(server, shares), Text.of("Saving to the embedded store should succeed"));
+            Map<String, ShareEntry> loaded = storage.load(server);
+            context.assertTrue(loaded != null && loaded.keySet().equals(shares.keySet()),
+                Text.of("Embedded store should load back every saved share"));
+            context.assertTrue(loaded.get("embedded-a").getInventory().getStack(0).isOf(Items.DIAMOND),
+                Text.of("Embedded store should keep share payloads"));
+
+            // Saving again only writes the changed entries and deletes the missing ones
+            shares.remove("embedded-b");
+            storage.save(server, shares);
+            loaded = storage.load(server);
+            context.assertTrue(loaded != null && loaded.keySet().equals(shares.keySet()),
+                Text.of("Embedded store should drop shares missing from the latest save"));
+        } finally {
+            storage.save(server, null);
+        }
+
+        context.complete();
+    }
+
+    @GameTest
+    public void testShareJournalReplayAndCompaction(TestContext context) {
+        ServerPlayerEntity player = GameTestPlayerUtils.createTestPlayerCalled(context, "player1");
+        MinecraftServer server = context.getWorld().getServer();
+        DataStorage<Map<String, ShareEntry>> storage =
+            new JsonCodecDataStorage<>("showcase_test_journal", ShowcaseMod.PLAYER_SHARE_ENTRY_CODEC);
+        Path snapshotPath = storage.getFilePath(server);
+        Path journalPath = snapshotPath.resolveSibling(storage.path() + ".journal");
+
+        boolean journalWasActive = ShareJournal.isActive();
+        if (journalWasActive) ShareJournal.close();
+        ShareRepository.clear();
+
+        try {
+            Files.deleteIfExists(snapshotPath);
+            Files.deleteIfExists(journalPath);
+
+            ShareJournal.open(server, storage);
+            ShareRepository.store("journal-invalid", createTestShareEntry(player, Items.DIAMOND));
+            ShareRepository.store("journal-viewed", createTestShareEntry(player, Items.EMERALD));
+            ShareRepository.store("journal-removed", createTestShareEntry(player, Items.STICK));
+            ShareRepository.invalidate("journal-invalid");
+            // Views from several threads must still be journaled with increasing counts
+            IntStream.range(0, JOURNAL_VIEWS).parallel().forEach(i -> ShareRepository.incrementViewCount("journal-viewed"));
+            ShareRepository.remove("journal-removed");
+            ShareJournal.close();
+
+            // Nothing was compacted yet, so everything comes from replaying the journal
+            context.assertTrue(!Files.exists(snapshotPath), Text.of("No snapshot should be written below the threshold"));
+            verifyJournalState(context, ShareJournal.load(server, storage), "replay");
+
+            // Opening a non-empty journal folds it into the snapshot and truncates it. The repository
+            // is emptied first, so the snapshot can only come from the journal itself
+            ShareRepository.clear();
+            ShareJournal.open(server, storage);
+            ShareJournal.close();
+            context.assertTrue(Files.exists(snapshotPath), Text.of("Compaction should write a snapshot"));
+            context.assertTrue(Files.size(journalPath) == 0, Text.of("Compaction should truncate the journal"));
+            verifyJournalState(context, ShareJournal.load(server, storage), "snapshot");
+        } catch (IOException e) {
+            context.throwGameTestException(Text.of("Journal test failed: " + e.getMessage()));
+        } finally {
+            ShareRepository.clear();
+            if (journalWasActive) ShareJournal.open(server, ShowcaseMod.PLAYER_SHARE_STORAGE);
+        }
+
+        context.complete();
+    }
+
+    @GameTest
+    public void testShareLimitPolicy(TestContext context) {
+        ServerPlayerEntity player = GameTestPlayerUtils.createTestPlayerCalled(context, "player1");
+        ModConfig.PlaceholderSettings settings = ModConfigManager.getConfig().placeholders;
+        int previousLimit = settings.maxSharesPerPlayer;
+        ModConfig.PlaceholderSettings.ShareLimitPolicy previousPolicy = settings.shareLimitPolicy;
+        ShareRepository.clear();
+
+        try {
+            settings.maxSharesPerPlayer = 2;
+
+            settings.shareLimitPolicy = ModConfig.PlaceholderSettings.ShareLimitPolicy.NONE;
+            for (int i = 0; i < 3; i++) {
+                ShowcaseManager.createItemShare(player, new ItemStack(Items.STICK), TEST_DURATION, Collections.emptyList());
+            }
+            context.assertTrue(ShareRepository.getLivePlayerShareCount(player.getUuid()) == 3,
+                Text.of("NONE should not enforce the limit"));
+
+            ShareRepository.clear();
+            settings.shareLimitPolicy = ModConfig.PlaceholderSettings.ShareLimitPolicy.REJECT;
+            ShowcaseManager.createItemShare(player, new ItemStack(Items.STICK), TEST_DURATION, Collections.emptyList());
+            ShowcaseManager.createItemShare(player, new ItemStack(Items.STICK), TEST_DURATION, Collections.emptyList());
+            boolean rejected = false;
+            try {
+                ShowcaseManager.createItemShare(player, new ItemStack(Items.STICK), TEST_DURATION, Collections.emptyList());
+            } catch (ShareLimitException e) {
+                rejected = true;
+            }
+            context.assertTrue(rejected, Text.of("REJECT should refuse a share over the limit"));
+            context.assertTrue(ShareRepository.getLivePlayerShareCount(player.getUuid()) == 2,
+                Text.of("REJECT should keep the existing shares"));
+
+            ShareRepository.clear();
+            settings.shareLimitPolicy = ModConfig.PlaceholderSettings.ShareLimitPolicy.EVICT_OLDEST;
+            String first = ShowcaseManager.createItemShare(player, new ItemStack(Items.STICK), TEST_DURATION, Collections.emptyList());
+            String second = ShowcaseManager.createItemShare(player, new ItemStack(Items.STICK), TEST_DURATION, Collections.emptyList());
+            String newest = ShowcaseManager.createItemShare(player, new ItemStack(Items.STICK), TEST_DURATION, Collections.emptyList());
+            // Shares created in the same millisecond tie on age, so either of the first two may go
+            context.assertTrue(ShareRepository.get(first).getIsInvalid() != ShareRepository.get(second).getIsInvalid(),
+                Text.of("EVICT_OLDEST should cancel exactly one of the older shares"));
+            context.assertTrue(!ShareRepository.get(newest).getIsInvalid(),
+                Text.of("EVICT_OLDEST should keep the new share"));
+            context.assertTrue(ShareRepository.getLivePlayerShareCount(player.getUuid()) == 2,
+                Text.of("EVICT_OLDEST should stay within the limit"));
+        } finally {
+            settings.maxSharesPerPlayer = previousLimit;
+            settings.shareLimitPolicy = previousPolicy;
+            ShareRepository.clear();
+        }
+
+        context.complete();
+    }
+
     // Helper Methods
     
     private void testCreate(TestContext context, String shareId, ShareEntry entry) {
@@ -200,6 +377,15 @@ public class DataPersistenceGameTest {
         context.assertTrue(!secondRemove, Text.of("Second removal should fail"));
     }
     
+    private void verifyJournalState(TestContext context, Map<String, ShareEntry> shares, String source) {
+        context.assertTrue(shares.keySet().equals(Set.of("journal-invalid", "journal-viewed")),
+            Text.of("Recovered shares from " + source + " should exclude the removed one, got: " + shares.keySet()));
+        context.assertTrue(shares.get("journal-invalid").getIsInvalid(),
+            Text.of("Invalidation should survive the " + source));
+        context.assertTrue(shares.get("journal-viewed").getViewCount() == JOURNAL_VIEWS,
+            Text.of("View count should survive the " + source));
+    }
+
     private ShareEntry createTestShareEntry(ServerPlayerEntity player, net.minecraft.item.Item item) {
         ReadOnlyInventory inv = new ReadOnlyInventory(9, Text.literal("Test Inventory"), ScreenHandlerType.GENERIC_9X1);
         inv.setStack(0, new ItemStack(item, 1));
@@ -0,0 +1,79 @@
+package com.showcase.gametest;
+
+import com.showcase.ShowcaseMod;
+import com.showcase.command.ShowcaseManager;
+import com.showcase.data.DataStorage;
+import com.showcase.data.JsonCodecDataStorage;
+import com.showcase.data.NbtCodecDataStorage;
+import com.showcase.data.ShareEntry;
+import com.showcase.utils.StackUtils;
+import net.fabricmc.fabric.api.gametest.v1.GameTest;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.test.TestContext;
+import net.minecraft.text.Text;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Development benchmark comparing the share snapshot size and load time of each storage format.
+ * Every format must also load back what it saved.
+ */
+public class StorageBenchmarkGameTest {
+
+    private static final int SYNTHETIC_SHARES = 100;
+    private static final int ITERATIONS = 10;
+
+    @GameTest
+    public void testStorageFormats(TestContext context) {
+        ServerPlayerEntity player = GameTestPlayerUtils.createTestPlayerCalled(context, "player1");
+        MinecraftServer server = context.getWorld().getServer();
+        player.getInventory().setStack(0, new ItemStack(Items.DIAMOND_SWORD));
+        player.getInventory().setStack(1, new ItemStack(Items.OAK_LOG, 64));
+
+        Map<String, ShareEntry> shares = new HashMap<>();
+        for (int i = 0; i < SYNTHETIC_SHARES; i++) {
+            shares.put(UUID.randomUUID().toString(), new ShareEntry(player.getUuid(), ShowcaseManager.ShareType.INVENTORY,
+                    StackUtils.snapshotFullInventory(player), 300, List.of()));
+        }
+
+        List<DataStorage<Map<String, ShareEntry>>> storages = List.of(
+                new JsonCodecDataStorage<>("benchmark", ShowcaseMod.PLAYER_SHARE_ENTRY_CODEC),
+                new NbtCodecDataStorage<>("benchmark", ShowcaseMod.PLAYER_SHARE_ENTRY_CODEC)
+        );
+
+        for (DataStorage<Map<String, ShareEntry>> storage : storages) {
+            try {
+                byte[] encoded = storage.serialize(server, shares);
+                Map<String, ShareEntry> decoded = storage.deserialize(server, encoded);
+                context.assertTrue(decoded != null && decoded.keySet().equals(shares.keySet()),
+                    Text.of(storage.extension() + " should load back every saved share"));
+
+                long encodeStart = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    storage.serialize(server, shares);
+                }
+                double encodeMs = (System.nanoTime() - encodeStart) / 1_000_000.0 / ITERATIONS;
+
+                long decodeStart = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    storage.deserialize(server, encoded);
+                }
+                double decodeMs = (System.nanoTime() - decodeStart) / 1_000_000.0 / ITERATIONS;
+
+                ShowcaseMod.LOGGER.info("Storage benchmark {}: {} KiB, encode {}ms, load {}ms", storage.extension(),
+                        String.format("%.1f", encoded.length / 1024.0), String.format("%.2f", encodeMs),
+                        String.format("%.2f", decodeMs));
+            } catch (Exception e) {
+                context.throwGameTestException(Text.of(storage.extension() + " benchmark failed: " + e.getMessage()));
+            }
+        }
+
+        context.complete();
+    }
+}
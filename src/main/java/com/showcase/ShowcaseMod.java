@@ -5,9 +5,17 @@ import com.showcase.command.ShowcaseCommand;
 import com.showcase.command.PlaceholderTestCommand;
 import com.showcase.command.ShowcaseManager;
 import com.showcase.config.ModConfigManager;
+import com.showcase.data.DataWritePipeline;
 import com.showcase.data.GlobalDataManager;
-import com.showcase.data.JsonCodecDataStorage;
+import com.showcase.data.DataStorage;
+import com.showcase.data.IoExecutor;
+import com.showcase.data.PlayerStatisticsStore;
+import com.showcase.data.ShareCheckpointer;
 import com.showcase.data.ShareEntry;
+import com.showcase.data.ShareJournal;
+import com.showcase.data.ShareTierStore;
+import com.showcase.data.StorageBackends;
+import com.showcase.data.StreamingMap;
 import com.showcase.listener.ChatMessageListener;
 import com.showcase.listener.ContainerOpenWatcher;
 import com.showcase.placeholders.Placeholders;
@@ -33,8 +41,8 @@ public class ShowcaseMod implements ModInitializer {
 	public static final Identifier PLAYER_SHARE_STORAGE_ID = Identifier.of(MOD_ID, "showcase_storage");
 	public static final Codec<Map<String, ShareEntry>> PLAYER_SHARE_ENTRY_CODEC =
 			Codec.unboundedMap(Codec.STRING, SHARE_ENTRY_CODEC);
-	public static final JsonCodecDataStorage<Map<String, ShareEntry>> PLAYER_SHARE_STORAGE =
-            new JsonCodecDataStorage<>("player_share_entry", PLAYER_SHARE_ENTRY_CODEC);
+	// Chosen in onInitialize once the configured storage format is known
+	public static DataStorage<Map<String, ShareEntry>> PLAYER_SHARE_STORAGE;
 
 	@Override
 	public void onInitialize() {
@@ -42,6 +50,8 @@ public class ShowcaseMod implements ModInitializer {
 		ModMetadataHolder.load();
 		ChatMessageListener.loadConfig();
 
+		PLAYER_SHARE_STORAGE = DataStorage.of("player_share_entry", PLAYER_SHARE_ENTRY_CODEC,
+				ModConfigManager.getStorageFormat(), StreamingMap.root(SHARE_ENTRY_CODEC));
 		GlobalDataManager.register(PLAYER_SHARE_STORAGE_ID, PLAYER_SHARE_STORAGE);
 
 		CommandRegistrationCallback.EVENT.register(
@@ -56,33 +66,65 @@ public class ShowcaseMod implements ModInitializer {
 		ShowcaseStatistics.initialize();
 		Placeholders.registerPlaceholders();
 		ChatMessageListener.registerChatHandler();
-		CountdownBossBarManager.registerTickEvent();
-		ContainerOpenWatcher.registerTickEvent();
+		// The budget tracker wraps the other tick handlers, so it is registered first and last
+		TickWorkScheduler.registerTickStart();
+		TickScheduler.registerTickEvent();
+		ShareCheckpointer.registerTickEvent();
+		TickWorkScheduler.registerTickEnd();
 
 		ServerLifecycleEvents.SERVER_STARTING.register(server -> {
+			IoExecutor.start();
 			try {
-				Map<String, ShareEntry> data = GlobalDataManager.getData(server, PLAYER_SHARE_STORAGE_ID);
-				if (data != null) ShowcaseManager.register(data);
+				TickWorkScheduler.open();
+				ShareTierStore.open(server);
+				if (ModConfigManager.isShareJournalEnabled()) {
+					// Snapshot plus journal replay, bypassing the global cache so saveAll never rewrites every share
+					ShowcaseManager.register(ShareJournal.load(server, PLAYER_SHARE_STORAGE));
+					ShareJournal.open(server, PLAYER_SHARE_STORAGE);
+				} else {
+					Map<String, ShareEntry> data = GlobalDataManager.getData(server, PLAYER_SHARE_STORAGE_ID);
+					if (data != null) ShowcaseManager.register(data);
+				}
+				ShareCheckpointer.open();
 
 				// Initialize statistics system with server instance
 				ShowcaseStatistics.setServer(server);
 
 				// Check resource pack configuration for icon feature
 				ResourcePackChecker.checkResourcePackConfiguration(server);
+				PlayerUtils.refreshUserCacheFile(server);
 			} catch (Exception e) {
 				LOGGER.error("Failed to load showcase data", e);
 			}
+			ShowcaseManager.startHousekeeping();
 		});
 
 		ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+			ShowcaseManager.stopHousekeeping();
 			MapViewer.restoreAll(server);
 			ContainerOpenWatcher.cleanup();
 			CountdownBossBarManager.cleanup();
+			TickScheduler.clear();
+			TickWorkScheduler.close();
 			try {
 				// Save showcase data and statistics
-				GlobalDataManager.setData(server, PLAYER_SHARE_STORAGE_ID, ShowcaseManager.getActiveShares());
+				ShareCheckpointer.close();
+				if (ShareJournal.isActive()) {
+					ShareJournal.close();
+				} else {
+					long stamp = ShareTierStore.beginSnapshot();
+					try {
+						GlobalDataManager.setData(server, PLAYER_SHARE_STORAGE_ID, ShowcaseManager.getActiveShares());
+					} finally {
+						ShareTierStore.endSnapshot(stamp);
+					}
+				}
 				ShowcaseStatistics.saveStatistics(); // Final save before shutdown
 				GlobalDataManager.saveAll(server);
+				DataWritePipeline.flush(30);
+				IoExecutor.shutdown(30);
+				StorageBackends.closeAll();
+				ShareTierStore.close();
 			} catch (Exception e) {
 				LOGGER.error("Failed to save showcase data", e);
 			}
@@ -91,9 +133,19 @@ public class ShowcaseMod implements ModInitializer {
 			LOGGER.info("Cleaned up shared items on server shutdown");
 		});
 
+		ServerLifecycleEvents.AFTER_SAVE.register((server, flush, force) -> {
+			// The shutdown save is handled by SERVER_STOPPING
+			if (!server.isRunning()) return;
+			if (!ShareJournal.isActive()) {
+				ShareCheckpointer.requestCheckpoint();
+			}
+			GlobalDataManager.onAutosave(server);
+		});
+
 		// Send resource pack warning to ops when they join
 		ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
 			ResourcePackChecker.sendResourcePackWarningToPlayer(handler.getPlayer());
+			PlayerStatisticsStore.preload(server, handler.getPlayer().getUuidAsString());
 		});
 
 		LOGGER.info("Showcase Mod initialized successfully!");
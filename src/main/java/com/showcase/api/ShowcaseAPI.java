@@ -4,6 +4,7 @@ import com.showcase.command.ShowcaseManager;
 import com.showcase.config.ModConfig;
 import com.showcase.config.ModConfigManager;
 import com.showcase.data.ShareEntry;
+import com.showcase.data.ShareRepository;
 import com.showcase.event.ShowcaseCreatedCallback;
 import com.showcase.event.ShowcaseViewedCallback;
 import com.showcase.event.ShowcaseEvents;
@@ -12,8 +13,11 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
 import net.minecraft.util.ActionResult;
 
 /**
@@ -91,6 +95,39 @@ public final class ShowcaseAPI {
         return ShowcaseManager.getPlayerShares(playerUuid);
     }
 
+    /**
+     * Gets all active shares sent to a specific player, newest first.
+     * 
+     * @param playerUuid the UUID of the receiving player
+     * @return a map of share IDs to share entries the player received
+     */
+    @NotNull
+    public Map<String, ShareEntry> getReceivedShares(@NotNull UUID playerUuid) {
+        return ShareRepository.getReceivedShares(playerUuid);
+    }
+
+    /**
+     * Gets one page of the active shares sent to a specific player, newest first.
+     * 
+     * @param playerUuid the UUID of the receiving player
+     * @param page the page number, starting at 1
+     * @param pageSize the number of shares per page
+     * @return a map of share IDs to share entries on the requested page, empty if past the end
+     */
+    @NotNull
+    public Map<String, ShareEntry> getReceivedShares(@NotNull UUID playerUuid, int page, int pageSize) {
+        if (page < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("Page and page size must be positive");
+        }
+
+        Map<String, ShareEntry> pageShares = new LinkedHashMap<>();
+        ShareRepository.getReceivedShares(playerUuid).entrySet().stream()
+                .skip((long) (page - 1) * pageSize)
+                .limit(pageSize)
+                .forEach(entry -> pageShares.put(entry.getKey(), entry.getValue()));
+        return pageShares;
+    }
+
     /**
      * Cancels a share by its ID.
      * 
@@ -101,6 +138,45 @@ public final class ShowcaseAPI {
         return ShowcaseManager.cancelShare(shareId);
     }
 
+    /**
+     * Cancels every matching share in a single pass. Statistics are updated and a checkpoint is
+     * requested once for the whole batch.
+     * 
+     * @param ownerUuid only consider this player's shares, or null for all shares
+     * @param filter selects the shares to cancel
+     * @return the number of cancelled shares, per type and per owner
+     */
+    public ShareRepository.BulkResult cancelSharesWhere(@Nullable UUID ownerUuid, @NotNull Predicate<ShareEntry> filter) {
+        return ShowcaseManager.expireSharesWhere(ownerUuid, filter);
+    }
+
+    /**
+     * Deletes every matching share in a single pass, including already cancelled ones. Statistics
+     * are updated and a checkpoint is requested once for the whole batch.
+     * 
+     * @param ownerUuid only consider this player's shares, or null for all shares
+     * @param filter selects the shares to delete
+     * @return the number of deleted shares, per type and per owner
+     */
+    public ShareRepository.BulkResult removeSharesWhere(@Nullable UUID ownerUuid, @NotNull Predicate<ShareEntry> filter) {
+        return ShowcaseManager.removeSharesWhere(ownerUuid, filter);
+    }
+
+    /**
+     * Gives every matching share to another player in a single pass. The shares keep their IDs,
+     * contents, receivers, views and expiry. Statistics are updated and a checkpoint is requested
+     * once for the whole batch.
+     * 
+     * @param ownerUuid only consider this player's shares, or null for all shares
+     * @param filter selects the shares to transfer
+     * @param newOwnerUuid the player who will own the shares
+     * @return the number of transferred shares, per type and per previous owner
+     */
+    public ShareRepository.BulkResult transferSharesWhere(@Nullable UUID ownerUuid, @NotNull Predicate<ShareEntry> filter,
+                                                          @NotNull UUID newOwnerUuid) {
+        return ShowcaseManager.transferSharesWhere(ownerUuid, filter, newOwnerUuid);
+    }
+
     /**
      * Checks if a share with the given ID exists and is still valid.
      * 
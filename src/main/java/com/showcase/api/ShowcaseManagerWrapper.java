@@ -94,7 +94,8 @@ public class ShowcaseManagerWrapper {
      *
      * @param viewer the player who wants to view the share
      * @param shareId the unique identifier of the share
-     * @return true if the content was successfully opened, false otherwise
+     * @return true if the share can be viewed; its screen opens at the end of the tick its payload
+     * is loaded
      */
     public boolean openSharedContent(@NotNull ServerPlayerEntity viewer, @NotNull String shareId) {
         return ShowcaseManager.openSharedContent(viewer, shareId);
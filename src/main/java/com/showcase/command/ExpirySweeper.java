@@ -0,0 +1,167 @@
+package com.showcase.command;
+
+import com.showcase.ShowcaseMod;
+import com.showcase.data.ShareRepository;
+import com.showcase.utils.TickWorkScheduler;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes expired and cancelled shares in the background.
+ * <p>
+ * Expiry works in two ways, like a key-value cache. Lookups through {@link ShowcaseManager} check
+ * the deadline and remove an expired share they meet, so a read never returns one. The sweeper only
+ * reclaims shares nobody looks at.
+ * <p>
+ * The repository keeps shares ordered by deadline, so a sweep takes the due shares from the front
+ * without a scan. It takes at most a batch per sweep and adjusts to the share of the batch that was
+ * due:
+ * <ul>
+ *     <li>A full batch means there is a backlog, so the batch doubles and the next sweep follows
+ *     shortly.</li>
+ *     <li>Less than a quarter of a batch means the backlog is gone, so the batch halves.</li>
+ *     <li>With nothing left due, the sweeper sleeps until the next deadline, and is woken early when
+ *     a share with an earlier one is added or cancelled.</li>
+ * </ul>
+ * Removal happens on the server thread through {@link TickWorkScheduler}, and a sweep waits while
+ * earlier removals are still queued there.
+ */
+public final class ExpirySweeper {
+    private static final int MIN_BATCH = 64;
+    private static final int MAX_BATCH = 4096;
+    private static final long BACKLOG_DELAY_MS = 50;
+    private static final long MAX_SLEEP_MS = 60_000;
+
+    // Guarded by the class
+    private static ScheduledExecutorService timer;
+    private static ScheduledFuture<?> nextSweep;
+    private static volatile long nextSweepAt = Long.MAX_VALUE;
+
+    // Written by sweeps, read for metrics
+    private static volatile int batchSize = MIN_BATCH;
+
+    private static final AtomicLong sweeps = new AtomicLong();
+    private static final AtomicLong swept = new AtomicLong();
+    private static final AtomicLong expiredOnRead = new AtomicLong();
+
+    /**
+     * Snapshot of the sweeper counters.
+     *
+     * @param sweeps sweeps run since startup
+     * @param swept shares removed by sweeps
+     * @param expiredOnRead shares removed because a lookup found them expired
+     * @param batchSize most shares the next sweep takes
+     * @param nextSweepInMs time until the next sweep, or -1 if none is planned
+     */
+    public record Metrics(long sweeps, long swept, long expiredOnRead, int batchSize, long nextSweepInMs) {}
+
+    private ExpirySweeper() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Starts sweeping on the given timer and sweeps once right away.
+     *
+     * @param timer the housekeeping timer
+     */
+    static synchronized void start(@NotNull ScheduledExecutorService timer) {
+        ExpirySweeper.timer = timer;
+        batchSize = MIN_BATCH;
+        ShareRepository.setExpiryListener(ExpirySweeper::onDeadline);
+        scheduleAt(System.currentTimeMillis());
+    }
+
+    static synchronized void stop() {
+        ShareRepository.setExpiryListener(null);
+        if (nextSweep != null) nextSweep.cancel(false);
+        nextSweep = null;
+        nextSweepAt = Long.MAX_VALUE;
+        timer = null;
+    }
+
+    /**
+     * Removes a share a lookup found expired.
+     *
+     * @param shareId the share ID
+     */
+    static void expireOnRead(@NotNull String shareId) {
+        TickWorkScheduler.post(() -> {
+            if (ShowcaseManager.removeExpired(shareId)) expiredOnRead.incrementAndGet();
+        });
+    }
+
+    private static void onDeadline(long deadline) {
+        long at = Math.max(deadline, System.currentTimeMillis());
+        if (at < nextSweepAt) scheduleAt(at);
+    }
+
+    private static synchronized void scheduleAt(long at) {
+        if (timer == null) return;
+        if (nextSweep != null) {
+            if (at >= nextSweepAt) return;
+            nextSweep.cancel(false);
+        }
+
+        try {
+            nextSweep = timer.schedule(ExpirySweeper::sweep, Math.max(0, at - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            nextSweepAt = at;
+        } catch (RejectedExecutionException e) {
+            // The timer is shutting down
+            nextSweep = null;
+            nextSweepAt = Long.MAX_VALUE;
+        }
+    }
+
+    private static void sweep() {
+        synchronized (ExpirySweeper.class) {
+            nextSweep = null;
+            nextSweepAt = Long.MAX_VALUE;
+        }
+
+        long now = System.currentTimeMillis();
+        try {
+            // Let the server thread catch up before handing it more removals
+            if (TickWorkScheduler.getQueueDepth() > batchSize) {
+                scheduleAt(now + BACKLOG_DELAY_MS);
+                return;
+            }
+
+            int batch = batchSize;
+            List<String> due = ShareRepository.pollExpired(now, batch);
+            sweeps.incrementAndGet();
+            for (String shareId : due) {
+                TickWorkScheduler.post(() -> {
+                    if (ShowcaseManager.removeExpired(shareId)) swept.incrementAndGet();
+                });
+            }
+
+            if (due.size() >= batch) {
+                batchSize = Math.min(MAX_BATCH, batch * 2);
+                scheduleAt(now + BACKLOG_DELAY_MS);
+                return;
+            }
+            if (due.size() < batch / 4) {
+                batchSize = Math.max(MIN_BATCH, batch / 2);
+            }
+
+            long nextDeadline = ShareRepository.getNextExpiry();
+            scheduleAt(Math.min(nextDeadline, now + MAX_SLEEP_MS));
+        } catch (Exception e) {
+            ShowcaseMod.LOGGER.error("Error while purging expired shares", e);
+            scheduleAt(now + 1000);
+        }
+    }
+
+    @NotNull
+    public static Metrics getMetrics() {
+        long at = nextSweepAt;
+        return new Metrics(sweeps.get(), swept.get(), expiredOnRead.get(), batchSize,
+                at == Long.MAX_VALUE ? -1 : Math.max(0, at - System.currentTimeMillis()));
+    }
+}
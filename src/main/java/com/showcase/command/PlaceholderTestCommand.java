@@ -82,4 +82,4 @@ public class PlaceholderTestCommand {
         PlaceholderTest.testPlaceholderPerformance(player, iterations);
         return 1;
     }
-}
\ No newline at end of file
+}
@@ -45,6 +45,9 @@ public class PlayerShowcaseCommand {
         root.then(ShareCommandExecutor.createCancelCommand()
                 .requires(ctx -> PermissionChecker.hasPermission(ctx, Permissions.Command.CANCEL, 0)));
 
+        root.then(ShareCommandExecutor.createInboxCommand()
+                .requires(ctx -> PermissionChecker.hasPermission(ctx, Permissions.Command.INBOX, 0)));
+
         dispatcher.register(root);
     }
 }
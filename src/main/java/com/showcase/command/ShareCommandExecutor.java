@@ -4,12 +4,14 @@ import com.mojang.brigadier.Command;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import com.showcase.config.ModConfigManager;
 import com.showcase.data.ShareEntry;
+import com.showcase.data.ShareRepository;
 import com.showcase.listener.ContainerOpenWatcher;
 import com.showcase.utils.*;
 import com.showcase.utils.ShareConstants;
@@ -24,7 +26,9 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -166,10 +170,7 @@ public class ShareCommandExecutor {
                         .suggests((ctx, builder) -> {
                             ServerPlayerEntity player = getSenderPlayer(ctx);
                             if (player != null) {
-                                ShowcaseManager.getUnmodifiableActiveShares().entrySet().stream()
-                                        .filter(e -> e.getValue().getOwnerUuid().equals(player.getUuid()))
-                                        .map(Map.Entry::getKey)
-                                        .forEach(builder::suggest);
+                                ShowcaseManager.getShareIdCompletions(player.getUuid()).forEach(builder::suggest);
                             }
                             return builder.buildFuture();
                         })
@@ -180,6 +181,16 @@ public class ShareCommandExecutor {
                         }));
     }
 
+    public static LiteralArgumentBuilder<ServerCommandSource> createInboxCommand() {
+        return literal(ShareConstants.INBOX)
+                .executes(ctx -> showInbox(getSenderPlayer(ctx), 1))
+                .then(argument("page", IntegerArgumentType.integer(1))
+                        .executes(ctx -> {
+                            int page = IntegerArgumentType.getInteger(ctx, "page");
+                            return showInbox(getSenderPlayer(ctx), page);
+                        }));
+    }
+
     private static LiteralArgumentBuilder<ServerCommandSource> createShareCommand(String commandName, boolean withSource, ShareExecutor executor) {
         var command = literal(commandName)
                 .executes(ctx -> executor.execute(ctx, null, null, null, null));
@@ -279,6 +290,9 @@ public class ShareCommandExecutor {
             ShowcaseManager.setCooldown(sender, type);
 
             return Command.SINGLE_SUCCESS;
+        } catch (ShareLimitException e) {
+            ctx.getSource().sendMessage(TextUtils.error(e.toText()));
+            return 0;
         } catch (RuntimeException e) {
             handleError(ctx, e);
             return -1;
@@ -367,10 +381,14 @@ public class ShareCommandExecutor {
 
         ContainerOpenWatcher.awaitContainerOpened(sender, durationSeconds,
                 (player, inventory) -> {
-                    String shareId = ShowcaseManager.createContainerShare(player, inventory, duration, receivers);
-                    ShareCommandUtils.sendShareMessage(sender, player, receivers, description, CONTAINER, inventory.getName(), duration, shareId);
-                    ShowcaseManager.setCooldown(sender, CONTAINER);
                     CountdownBossBarManager.remove(countdown);
+                    try {
+                        String shareId = ShowcaseManager.createContainerShare(player, inventory, duration, receivers);
+                        ShareCommandUtils.sendShareMessage(sender, player, receivers, description, CONTAINER, inventory.getName(), duration, shareId);
+                        ShowcaseManager.setCooldown(sender, CONTAINER);
+                    } catch (ShareLimitException e) {
+                        sender.sendMessage(TextUtils.error(e.toText()));
+                    }
                 },
                 () -> {
                     sender.sendMessage(TextUtils.warning(Text.translatable("showcase.message.share_container_expiry")), true);
@@ -395,10 +413,14 @@ public class ShareCommandExecutor {
 
         ContainerOpenWatcher.awaitMerchantGuiOpened(sender, durationSeconds,
                 (player, merchantContext) -> {
-                    String shareId = ShowcaseManager.createMerchantShare(player, merchantContext, duration, receivers);
-                    ShareCommandUtils.sendShareMessage(sender, player, receivers, description, MERCHANT, merchantContext.getFullDisplayName(), duration, shareId);
-                    ShowcaseManager.setCooldown(sender, MERCHANT);
                     CountdownBossBarManager.remove(countdown);
+                    try {
+                        String shareId = ShowcaseManager.createMerchantShare(player, merchantContext, duration, receivers);
+                        ShareCommandUtils.sendShareMessage(sender, player, receivers, description, MERCHANT, merchantContext.getFullDisplayName(), duration, shareId);
+                        ShowcaseManager.setCooldown(sender, MERCHANT);
+                    } catch (ShareLimitException e) {
+                        sender.sendMessage(TextUtils.error(e.toText()));
+                    }
                 },
                 () -> {
                     sender.sendMessage(TextUtils.warning(Text.translatable("showcase.message.share_merchant_expiry")), true);
@@ -432,6 +454,24 @@ public class ShareCommandExecutor {
         return success ? Command.SINGLE_SUCCESS : 0;
     }
 
+    private static int showInbox(ServerPlayerEntity player, int page) {
+        if (player == null) return 0;
+
+        Map<String, ShareEntry> received = ShareRepository.getReceivedShares(player.getUuid());
+
+        if (received.isEmpty()) {
+            player.sendMessage(TextUtils.info(Text.translatable("showcase.message.inbox.empty")));
+            return 0;
+        }
+
+        List<Map.Entry<String, ShareEntry>> shareList = new ArrayList<>(received.entrySet());
+        ChatPaginator<Map.Entry<String, ShareEntry>> paginator = new ChatPaginator<>(shareList, 3, "/" + SHARE_COMMAND + " " + ShareConstants.INBOX);
+
+        player.sendMessage(paginator.renderPage(page, entry ->
+                buildShareLine(player, entry.getKey(), entry.getValue(), false), "Inbox"));
+        return Command.SINGLE_SUCCESS;
+    }
+
     private static int getValidatedDuration(CommandContext<ServerCommandSource> ctx) throws CommandSyntaxException {
         String timeString = StringArgumentType.getString(ctx, DURATION_ARG);
         int requested;
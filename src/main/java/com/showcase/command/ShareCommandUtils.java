@@ -7,6 +7,7 @@ import com.showcase.config.ModConfigManager;
 import com.showcase.data.ShareEntry;
 import com.showcase.gui.MerchantContext;
 import com.showcase.utils.PlayerUtils;
+import com.showcase.utils.ReadOnlyInventory;
 import com.showcase.utils.StackUtils;
 import com.showcase.utils.TextUtils;
 import com.showcase.utils.compat.ServerPlayerCompat;
@@ -107,7 +108,9 @@ public class ShareCommandUtils {
     public static MutableText createContainerPreview(ShareEntry shareEntry) {
         if (shareEntry == null) return null;
 
-        Inventory inv = shareEntry.getInventory();
+        Inventory inv = shareEntry.getLoadedInventory();
+        if (inv == null) return null;
+
         Map<Text, Integer> counts = new HashMap<>();
 
         for (int i = 0; i < inv.size(); i++) {
@@ -143,7 +146,7 @@ public class ShareCommandUtils {
     private static MutableText getFinalPreviewText(Text itemName, ShowcaseManager.ShareType type, String shareId) {
         ShareEntry shareEntry = ShowcaseManager.getShareEntry(shareId);
         MutableText sharePreview = shareEntry.getType() == MERCHANT ?
-                createMerchantPreviewText(shareEntry.getMerchantContext()) : createContainerPreview(shareEntry);
+                createMerchantPreviewText(shareEntry.getLoadedMerchantContext()) : createContainerPreview(shareEntry);
 
         MutableText preview = Text.literal("")
                 .append(itemName)
@@ -164,6 +167,8 @@ public class ShareCommandUtils {
     }
 
     private static MutableText createMerchantPreviewText(MerchantContext merchantContext) {
+        if (merchantContext == null) return null;
+
         MutableText preview = Text.literal("");
 
         if (merchantContext.getExperience() > 0) {
@@ -367,6 +372,10 @@ public class ShareCommandUtils {
     }
 
     public static MutableText buildShareLine(ServerPlayerEntity viewer, String shareId, ShareEntry share) {
+        return buildShareLine(viewer, shareId, share, true);
+    }
+
+    public static MutableText buildShareLine(ServerPlayerEntity viewer, String shareId, ShareEntry share, boolean cancellable) {
         MinecraftServer server = ServerPlayerCompat.getServer(viewer);
 
         Text ownerName =  PlayerUtils.getSafeDisplayName(server, share.getOwnerUuid());
@@ -379,7 +388,7 @@ public class ShareCommandUtils {
                 .append(buildShareSection(share, itemName, shareId))
                 .append(buildViewsSection(share.getViewCount()))
                 .append(buildTimeSection(share))
-                .append(buildCancelSection(shareId))
+                .append(cancellable ? buildCancelSection(shareId) : Text.literal(""))
                 .append(Text.literal("\n\n"));
     }
 
@@ -438,16 +447,21 @@ public class ShareCommandUtils {
 
     private static Text getShareItemName(ShareEntry share) {
         return switch (share.getType()) {
-            case ITEM, STATS -> share.getInventory().getName();
+            case ITEM, STATS -> {
+                ReadOnlyInventory inventory = share.getLoadedInventory();
+                yield inventory != null ? inventory.getName() : TextUtils.CONTAINER;
+            }
             case INVENTORY -> TextUtils.INVENTORY;
             case HOTBAR -> TextUtils.HOTBAR;
             case ENDER_CHEST -> TextUtils.ENDER_CHEST;
             case MERCHANT -> {
-                Text name = share.getMerchantContext().getDisplayName();
+                MerchantContext context = share.getLoadedMerchantContext();
+                Text name = context != null ? context.getDisplayName() : null;
                 yield name != null ? name : TextUtils.CONTAINER;
             }
             case CONTAINER -> {
-                Text name = share.getInventory().getName();
+                ReadOnlyInventory inventory = share.getLoadedInventory();
+                Text name = inventory != null ? inventory.getName() : null;
                 yield name != null ? name : TextUtils.CONTAINER;
             }
         };
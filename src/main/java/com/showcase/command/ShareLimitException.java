@@ -0,0 +1,27 @@
+package com.showcase.command;
+
+import net.minecraft.text.Text;
+
+/**
+ * Thrown by the {@code create*Share} methods of {@link ShowcaseManager} when the owner already has
+ * the configured maximum of live shares and the limit policy is to reject new ones.
+ */
+public class ShareLimitException extends RuntimeException {
+    private final int limit;
+
+    public ShareLimitException(int limit) {
+        super(Text.translatable("showcase.message.share_limit_reached", limit).getString());
+        this.limit = limit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the message to show the player
+     */
+    public Text toText() {
+        return Text.translatable("showcase.message.share_limit_reached", limit);
+    }
+}
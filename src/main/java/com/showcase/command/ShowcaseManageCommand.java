@@ -5,13 +5,23 @@ import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.showcase.ShowcaseMod;
 import com.showcase.config.ModConfig;
 import com.showcase.config.ModConfigManager;
+import com.showcase.data.DataQuarantine;
+import com.showcase.data.DataWritePipeline;
+import com.showcase.data.IoExecutor;
+import com.showcase.data.ShareCheckpointer;
 import com.showcase.data.ShareEntry;
+import com.showcase.data.ShareRepository;
+import com.showcase.data.ShareTierStore;
 import com.showcase.listener.ChatMessageListener;
 import com.showcase.utils.ChatPaginator;
+import com.showcase.utils.ItemStackPool;
+import com.showcase.utils.SnapshotCache;
 import com.showcase.utils.ModMetadataHolder;
+import com.showcase.utils.TickWorkScheduler;
 import com.showcase.utils.permissions.Permissions;
 import com.showcase.utils.TextUtils;
 import com.showcase.utils.TextEventFactory;
@@ -26,6 +36,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.showcase.command.ShareCommandUtils.*;
@@ -44,8 +55,10 @@ public class ShowcaseManageCommand {
                         .then(createReloadCommand())
                         .then(createListCommand())
                         .then(createCancelCommand())
+                        .then(createBulkCommand())
                         .then(createAboutCommand())
                         .then(createConfigCommands())
+                        .then(createStorageCommand())
         );
     }
 
@@ -177,6 +190,184 @@ public class ShowcaseManageCommand {
                         }));
     }
 
+    private static final String ALL_PLAYERS = "*";
+
+    private enum BulkAction { EXPIRE, REMOVE, TRANSFER }
+
+    private static LiteralArgumentBuilder<ServerCommandSource> createBulkCommand() {
+        return literal("bulk")
+                .requires(src -> hasPermission(src, Permissions.Manage.BULK, 4))
+                .then(literal("expire").then(bulkOwnerArgument(BulkAction.EXPIRE)))
+                .then(literal("remove").then(bulkOwnerArgument(BulkAction.REMOVE)))
+                .then(literal("transfer").then(argument("owner", StringArgumentType.string())
+                        .suggests((ctx, builder) -> {
+                            builder.suggest(ALL_PLAYERS);
+                            getPlayerNameCompletions(ctx).forEach(builder::suggest);
+                            return builder.buildFuture();
+                        })
+                        .then(argument("newOwner", StringArgumentType.string())
+                                .suggests((ctx, builder) -> {
+                                    getPlayerNameCompletions(ctx).forEach(builder::suggest);
+                                    return builder.buildFuture();
+                                })
+                                .executes(ctx -> executeBulk(ctx.getSource(), BulkAction.TRANSFER,
+                                        StringArgumentType.getString(ctx, "owner"), null,
+                                        StringArgumentType.getString(ctx, "newOwner")))
+                                .then(bulkTypeArgument(BulkAction.TRANSFER)))));
+    }
+
+    private static RequiredArgumentBuilder<ServerCommandSource, String> bulkOwnerArgument(BulkAction action) {
+        return argument("owner", StringArgumentType.string())
+                .suggests((ctx, builder) -> {
+                    builder.suggest(ALL_PLAYERS);
+                    getPlayerNameCompletions(ctx).forEach(builder::suggest);
+                    return builder.buildFuture();
+                })
+                .executes(ctx -> executeBulk(ctx.getSource(), action,
+                        StringArgumentType.getString(ctx, "owner"), null, null))
+                .then(bulkTypeArgument(action));
+    }
+
+    private static RequiredArgumentBuilder<ServerCommandSource, String> bulkTypeArgument(BulkAction action) {
+        return argument("type", StringArgumentType.word())
+                .suggests((ctx, builder) -> {
+                    for (ShowcaseManager.ShareType type : ShowcaseManager.ShareType.values()) {
+                        builder.suggest(type.name().toLowerCase(Locale.ROOT));
+                    }
+                    return builder.buildFuture();
+                })
+                .executes(ctx -> executeBulk(ctx.getSource(), action,
+                        StringArgumentType.getString(ctx, "owner"),
+                        StringArgumentType.getString(ctx, "type"),
+                        action == BulkAction.TRANSFER ? StringArgumentType.getString(ctx, "newOwner") : null));
+    }
+
+    private static int executeBulk(ServerCommandSource source, BulkAction action, String ownerArg,
+                                   String typeArg, String newOwnerArg) {
+        UUID owner = null;
+        if (!ALL_PLAYERS.equals(ownerArg)) {
+            owner = resolvePlayerUuid(source, ownerArg);
+            if (owner == null) {
+                source.sendError(TextUtils.error(Text.translatable("showcase.message.manage.bulk.player_not_found", ownerArg)));
+                return 0;
+            }
+        }
+
+        UUID newOwner = null;
+        if (newOwnerArg != null) {
+            newOwner = resolvePlayerUuid(source, newOwnerArg);
+            if (newOwner == null) {
+                source.sendError(TextUtils.error(Text.translatable("showcase.message.manage.bulk.player_not_found", newOwnerArg)));
+                return 0;
+            }
+        }
+
+        ShowcaseManager.ShareType type = null;
+        if (typeArg != null) {
+            try {
+                type = ShowcaseManager.ShareType.valueOf(typeArg.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                source.sendError(TextUtils.error(Text.translatable("showcase.message.manage.bulk.invalid_type", typeArg)));
+                return 0;
+            }
+        }
+
+        ShowcaseManager.ShareType matchType = type;
+        Predicate<ShareEntry> filter = entry -> matchType == null || entry.getType() == matchType;
+        ShareRepository.BulkResult result = switch (action) {
+            case EXPIRE -> ShowcaseManager.expireSharesWhere(owner, filter);
+            case REMOVE -> ShowcaseManager.removeSharesWhere(owner, filter);
+            case TRANSFER -> ShowcaseManager.transferSharesWhere(owner, filter, newOwner);
+        };
+
+        if (result.isEmpty()) {
+            source.sendMessage(TextUtils.info(Text.translatable("showcase.message.manage.bulk.empty")));
+            return 0;
+        }
+
+        String breakdown = result.byType().entrySet().stream()
+                .map(entry -> entry.getKey().name().toLowerCase(Locale.ROOT) + " " + entry.getValue())
+                .collect(Collectors.joining(", "));
+        Text message = switch (action) {
+            case EXPIRE -> Text.translatable("showcase.message.manage.bulk.expired", result.affected(), breakdown);
+            case REMOVE -> Text.translatable("showcase.message.manage.bulk.removed", result.affected(), breakdown);
+            case TRANSFER -> Text.translatable("showcase.message.manage.bulk.transferred", result.affected(), newOwnerArg, breakdown);
+        };
+        source.sendMessage(TextUtils.success(message));
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Resolves an online player's name or any player's UUID.
+     */
+    private static UUID resolvePlayerUuid(ServerCommandSource source, String nameOrUuid) {
+        ServerPlayerEntity player = source.getServer().getPlayerManager().getPlayer(nameOrUuid);
+        if (player != null) return player.getUuid();
+
+        try {
+            return UUID.fromString(nameOrUuid);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static LiteralArgumentBuilder<ServerCommandSource> createStorageCommand() {
+        return literal("storage")
+                .requires(src -> hasPermission(src, Permissions.Manage.STORAGE, 4))
+                .executes(ctx -> {
+                    ServerCommandSource source = ctx.getSource();
+                    BiConsumer<String, String> sendMetric = (name, value) -> source.sendMessage(
+                            Text.literal(name + ": ").formatted(Formatting.YELLOW)
+                                    .append(Text.literal(value).formatted(Formatting.WHITE)));
+
+                    source.sendMessage(Text.literal("=== Storage Status ===").formatted(Formatting.GOLD));
+
+                    DataWritePipeline.Metrics writes = DataWritePipeline.getMetrics();
+                    sendMetric.accept("Write Queue Depth", String.valueOf(writes.queueDepth()));
+                    sendMetric.accept("Writes (ok/failed/coalesced)",
+                            writes.completed() + " / " + writes.failed() + " / " + writes.coalesced());
+                    sendMetric.accept("Write Latency (last/avg/max)", String.format("%.1fms / %.1fms / %.1fms",
+                            writes.lastLatencyMs(), writes.avgLatencyMs(), writes.maxLatencyMs()));
+                    IoExecutor.Metrics io = IoExecutor.getMetrics();
+                    sendMetric.accept("I/O Tasks (queued/active/peak)", io.queued() + " / " + io.active() + " / " + io.peakActive());
+                    sendMetric.accept("I/O Tasks (ok/failed)", io.completed() + " / " + io.failed());
+
+                    ShareCheckpointer.Metrics checkpoints = ShareCheckpointer.getMetrics();
+                    sendMetric.accept("Share Checkpoints", String.valueOf(checkpoints.checkpoints()));
+                    sendMetric.accept("Last Checkpoint", String.format("%d shares, %.1f KiB in %.1fms",
+                            checkpoints.lastShareCount(), checkpoints.lastSizeBytes() / 1024.0, checkpoints.lastDurationMs()));
+                    sendMetric.accept("Tick Pause (last/max)", String.format("%.2fms / %.2fms",
+                            checkpoints.lastPauseMs(), checkpoints.maxPauseMs()));
+                    TickWorkScheduler.Metrics work = TickWorkScheduler.getMetrics();
+                    sendMetric.accept("Deferred Work (pending/run/spilled ticks)",
+                            work.queueDepth() + " / " + work.completed() + " / " + work.deferredTicks());
+                    sendMetric.accept("Deferred Work Time (last/max)", String.format("%.2fms / %.2fms",
+                            work.lastDrainMs(), work.maxDrainMs()));
+                    sendMetric.accept("Showcase MSPT", String.format("%.2fms of %.2fms (%.1f%%)",
+                            work.averageShowcaseMs(), work.averageTickMs(), work.msptShare() * 100));
+                    ExpirySweeper.Metrics expiry = ExpirySweeper.getMetrics();
+                    sendMetric.accept("Expired Shares (swept/on read)", expiry.swept() + " / " + expiry.expiredOnRead());
+                    sendMetric.accept("Expiry Sweeps", String.format("%d, batch %d, next %s", expiry.sweeps(), expiry.batchSize(),
+                            expiry.nextSweepInMs() < 0 ? "none" : String.format("in %.1fs", expiry.nextSweepInMs() / 1000.0)));
+                    sendMetric.accept("Records (salvaged/quarantined)",
+                            DataQuarantine.getSalvagedCount() + " / " + DataQuarantine.getQuarantinedCount());
+                    sendMetric.accept("Share ID Collisions", String.valueOf(ShareRepository.getIdCollisionCount()));
+
+                    ItemStackPool.Metrics pool = ItemStackPool.getMetrics();
+                    sendMetric.accept("Pooled Item Stacks", String.format("%d (hit ratio %.1f%%)",
+                            pool.pooledStacks(), pool.hitRatio() * 100));
+                    sendMetric.accept("Reused Snapshots", String.valueOf(SnapshotCache.getReusedCount()));
+
+                    ShareTierStore.Metrics tiers = ShareTierStore.getMetrics();
+                    sendMetric.accept("Shares (in memory/spilled)", tiers.hotShares() + " / " + tiers.coldShares());
+                    sendMetric.accept("Spill File", String.format("%.1f KiB, %d spills, %d faults",
+                            tiers.spillFileBytes() / 1024.0, tiers.spills(), tiers.faults()));
+
+                    source.sendMessage(Text.literal("======================").formatted(Formatting.GOLD));
+                    return Command.SINGLE_SUCCESS;
+                });
+    }
+
     private static LiteralArgumentBuilder<ServerCommandSource> createConfigCommands() {
         return literal("config")
                 .requires(src -> hasPermission(src, Permissions.MANAGE, 4))
@@ -251,6 +442,12 @@ public class ShowcaseManageCommand {
                             admin.sendMessage(Text.literal("Max Shares/Player: ").formatted(Formatting.YELLOW)
                                 .append(Text.literal(String.valueOf(config.placeholders.maxSharesPerPlayer)).formatted(Formatting.WHITE)));
 
+                            admin.sendMessage(Text.literal("Share Limit Policy: ").formatted(Formatting.YELLOW)
+                                .append(Text.literal(String.valueOf(config.placeholders.shareLimitPolicy)).formatted(Formatting.WHITE)));
+
+                            admin.sendMessage(Text.literal("Tick Budget: ").formatted(Formatting.YELLOW)
+                                .append(Text.literal(config.performance.tickBudgetMicros + "µs").formatted(Formatting.WHITE)));
+
                             admin.sendMessage(Text.literal("==============================").formatted(Formatting.GOLD));
 
                             return Command.SINGLE_SUCCESS;
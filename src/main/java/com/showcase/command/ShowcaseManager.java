@@ -2,9 +2,13 @@ package com.showcase.command;
 
 import com.showcase.ShowcaseMod;
 import com.showcase.api.ShowcaseAPI;
+import com.showcase.config.ModConfig;
 import com.showcase.config.ModConfigManager;
+import com.showcase.data.IoExecutor;
+import com.showcase.data.ShareCheckpointer;
 import com.showcase.data.ShareEntry;
 import com.showcase.data.ShareRepository;
+import com.showcase.data.ShareTierStore;
 import com.showcase.gui.ContainerGui;
 import com.showcase.gui.MerchantContext;
 import com.showcase.gui.ReadonlyMerchantGui;
@@ -21,7 +25,7 @@ import net.minecraft.text.Text;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 import static com.showcase.command.ShowcaseManager.ShareType.ITEM;
 import static com.showcase.command.ShowcaseManager.ShareType.STATS;
@@ -33,34 +37,65 @@ public final class ShowcaseManager {
         ITEM, INVENTORY, HOTBAR, ENDER_CHEST, CONTAINER, MERCHANT, STATS
     }
 
-    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "Showcase‑Cleanup");
-        t.setDaemon(true);
-        return t;
-    });
+    private static volatile ScheduledExecutorService scheduler;
 
     /**
-     * Get the scheduler for async tasks
-     * @return the scheduled executor service
+     * Get the timer for periodic housekeeping. Blocking file I/O runs on the {@link IoExecutor}.
+     * @return the scheduled executor service, or null while no server is running
      */
     public static ScheduledExecutorService getScheduler() {
-        return SCHEDULER;
+        return scheduler;
     }
 
-    static {
-        // Schedule the recycler for expired shares
-        long intervalSeconds = 60;
-        SCHEDULER.scheduleAtFixedRate(ShowcaseManager::purgeExpired, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    /**
+     * Starts the housekeeping timer, which purges expired shares, keeps share payloads within the
+     * in-memory limit and cleans up cooldowns.
+     */
+    public static synchronized void startHousekeeping() {
+        if (scheduler != null) return;
+
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "Showcase‑Cleanup");
+            t.setDaemon(true);
+            return t;
+        });
+        // Pending one-shot tasks such as debounced saves are covered by the final save
+        timer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        timer.setRemoveOnCancelPolicy(true);
+
+        // Purge expired shares; the sweeper plans its own next run
+        ExpirySweeper.start(timer);
 
-        // Schedule cooldown cleanup every 5 minutes
+        // Keep the number of share payloads in memory within the configured limit
+        long budgetIntervalMillis = 1000;
+        timer.scheduleAtFixedRate(ShareTierStore::requestBudgetPass, budgetIntervalMillis, budgetIntervalMillis, TimeUnit.MILLISECONDS);
+
+        // Schedule cooldown and snapshot cache cleanup every 5 minutes
         long cooldownCleanupInterval = 300; // 5 minutes
-        SCHEDULER.scheduleAtFixedRate(() -> {
-            try {
-                com.showcase.utils.CooldownManager.cleanupExpiredCooldowns();
-            } catch (Exception e) {
-                ShowcaseMod.LOGGER.error("Error during cooldown cleanup", e);
-            }
-        }, cooldownCleanupInterval, cooldownCleanupInterval, TimeUnit.SECONDS);
+        timer.scheduleAtFixedRate(() -> TickWorkScheduler.post(() -> {
+            com.showcase.utils.CooldownManager.cleanupExpiredCooldowns();
+            SnapshotCache.cleanup();
+        }), cooldownCleanupInterval, cooldownCleanupInterval, TimeUnit.SECONDS);
+
+        scheduler = timer;
+    }
+
+    /**
+     * Stops the housekeeping timer, letting a task that is already running finish.
+     */
+    public static synchronized void stopHousekeeping() {
+        ScheduledExecutorService timer = scheduler;
+        if (timer == null) return;
+
+        scheduler = null;
+        ExpirySweeper.stop();
+        timer.shutdown();
+        try {
+            if (!timer.awaitTermination(5, TimeUnit.SECONDS)) timer.shutdownNow();
+        } catch (InterruptedException e) {
+            timer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
     }
 
     private ShowcaseManager() {
@@ -76,17 +111,36 @@ public final class ShowcaseManager {
         ShowcaseMod.LOGGER.info("Loaded {} showcase shares from storage", share.size());
     }
 
-    private static String nextId() {
-        return UUID.randomUUID().toString().substring(0, 8);
+    /**
+     * Makes room for a new share of the owner under {@code maxSharesPerPlayer}, either by cancelling
+     * the owner's oldest live shares or by refusing the new one, depending on the limit policy.
+     *
+     * @throws ShareLimitException if the owner is at the limit and the policy is to reject
+     */
+    private static void admitShare(ServerPlayerEntity owner) {
+        ModConfig.PlaceholderSettings.ShareLimitPolicy policy = ModConfigManager.getShareLimitPolicy();
+        if (policy == ModConfig.PlaceholderSettings.ShareLimitPolicy.NONE) return;
+
+        int limit = ModConfigManager.getMaxSharesPerPlayer();
+        UUID ownerUuid = owner.getUuid();
+
+        while (ShareRepository.getLivePlayerShareCount(ownerUuid) >= limit) {
+            if (policy == ModConfig.PlaceholderSettings.ShareLimitPolicy.REJECT) {
+                throw new ShareLimitException(limit);
+            }
+
+            String oldest = ShareRepository.getOldestLivePlayerShareId(ownerUuid);
+            if (oldest == null || !expireShareById(oldest)) break;
+            owner.sendMessage(TextUtils.warning(Text.translatable("showcase.message.share_evicted", oldest, limit)), false);
+        }
     }
 
     public static String createStatsShare(ServerPlayerEntity owner, ItemStack stack, Integer duration, Collection<ServerPlayerEntity> receivers) {
-        String id = nextId();
-
+        admitShare(owner);
         ReadOnlyInventory inv = new ReadOnlyInventory(9, StackUtils.getDisplayName(stack), ScreenHandlerType.GENERIC_9X1);
-        inv.addStack(stack.copy());
+        inv.setStack(0, stack);
 
-        ShareRepository.store(id, new ShareEntry(owner.getUuid(), STATS, inv, duration, receivers));
+        String id = ShareRepository.add(new ShareEntry(owner.getUuid(), STATS, inv, duration, receivers));
 
         // Record statistics
         ShowcaseStatistics.recordShareCreation(owner, ShareType.STATS,
@@ -96,13 +150,12 @@ public final class ShowcaseManager {
     }
 
     public static String createItemShare(ServerPlayerEntity owner, ItemStack stack, Integer duration, Collection<ServerPlayerEntity> receivers) {
-        String id = nextId();
-
+        admitShare(owner);
         ReadOnlyInventory inv = new ReadOnlyInventory(9, StackUtils.getDisplayName(stack), ScreenHandlerType.GENERIC_9X1);
-        inv.addStack(stack.copy());
+        inv.setStack(0, stack);
         for (int i = 1; i < 9; i++) inv.setStack(i, DIVIDER_ITEM);
 
-        ShareRepository.store(id, new ShareEntry(owner.getUuid(), ITEM, inv, duration, receivers));
+        String id = ShareRepository.add(new ShareEntry(owner.getUuid(), ITEM, inv, duration, receivers));
 
         // Record statistics
         ShowcaseStatistics.recordShareCreation(owner, ShareType.ITEM,
@@ -112,9 +165,10 @@ public final class ShowcaseManager {
     }
 
     public static String createInventoryShare(ServerPlayerEntity owner, Integer duration, Collection<ServerPlayerEntity> receivers) {
-        String id = nextId();
-        ReadOnlyInventory inv = snapshotFullInventory(owner);
-        ShareRepository.store(id, new ShareEntry(owner.getUuid(), ShareType.INVENTORY, inv, duration, receivers));
+        admitShare(owner);
+        // Re-sharing an unchanged inventory reuses the earlier snapshot
+        ReadOnlyInventory inv = SnapshotCache.reuse(owner.getUuid(), ShareType.INVENTORY, snapshotFullInventory(owner));
+        String id = ShareRepository.add(new ShareEntry(owner.getUuid(), ShareType.INVENTORY, inv, duration, receivers));
 
         // Record statistics
         ShowcaseStatistics.recordShareCreation(owner, ShareType.INVENTORY,
@@ -124,9 +178,9 @@ public final class ShowcaseManager {
     }
 
     public static String createHotbarShare(ServerPlayerEntity owner, Integer duration, Collection<ServerPlayerEntity> receivers) {
-        String id = nextId();
-        ReadOnlyInventory inv = new HotbarSnapshotInventory(owner.getInventory());
-        ShareRepository.store(id, new ShareEntry(owner.getUuid(), ShareType.HOTBAR, inv, duration, receivers));
+        admitShare(owner);
+        ReadOnlyInventory inv = SnapshotCache.reuse(owner.getUuid(), ShareType.HOTBAR, new HotbarSnapshotInventory(owner.getInventory()));
+        String id = ShareRepository.add(new ShareEntry(owner.getUuid(), ShareType.HOTBAR, inv, duration, receivers));
 
         // Record statistics
         ShowcaseStatistics.recordShareCreation(owner, ShareType.HOTBAR,
@@ -136,13 +190,14 @@ public final class ShowcaseManager {
     }
 
     public static String createEnderChestShare(ServerPlayerEntity owner, Integer duration, Collection<ServerPlayerEntity> receivers) {
-        String id = nextId();
+        admitShare(owner);
         int size = owner.getEnderChestInventory().size();
         ReadOnlyInventory inv = new ReadOnlyInventory(size, TextUtils.ENDER_CHEST, handlerTypeForRows(size / 9));
         for (int i = 0; i < size; i++) {
-            inv.setStack(i, owner.getEnderChestInventory().getStack(i).copy());
+            inv.setStack(i, owner.getEnderChestInventory().getStack(i));
         }
-        ShareRepository.store(id, new ShareEntry(owner.getUuid(), ShareType.ENDER_CHEST, inv, duration, receivers));
+        inv = SnapshotCache.reuse(owner.getUuid(), ShareType.ENDER_CHEST, inv);
+        String id = ShareRepository.add(new ShareEntry(owner.getUuid(), ShareType.ENDER_CHEST, inv, duration, receivers));
 
         // Record statistics
         ShowcaseStatistics.recordShareCreation(owner, ShareType.ENDER_CHEST,
@@ -152,8 +207,8 @@ public final class ShowcaseManager {
     }
 
     public static String createContainerShare(ServerPlayerEntity owner, ReadOnlyInventory container, Integer duration, Collection<ServerPlayerEntity> receivers) {
-        String id = nextId();
-        ShareRepository.store(id, new ShareEntry(owner.getUuid(), ShareType.CONTAINER, container, duration, receivers));
+        admitShare(owner);
+        String id = ShareRepository.add(new ShareEntry(owner.getUuid(), ShareType.CONTAINER, container, duration, receivers));
 
         // Record statistics
         ShowcaseStatistics.recordShareCreation(owner, ShareType.CONTAINER,
@@ -163,8 +218,8 @@ public final class ShowcaseManager {
     }
 
     public static String createMerchantShare(ServerPlayerEntity owner, MerchantContext merchantContext, Integer duration, Collection<ServerPlayerEntity> receivers) {
-        String id = nextId();
-        ShareRepository.store(id, new ShareEntry(owner.getUuid(), ShareType.MERCHANT, merchantContext, duration, receivers));
+        admitShare(owner);
+        String id = ShareRepository.add(new ShareEntry(owner.getUuid(), ShareType.MERCHANT, merchantContext, duration, receivers));
 
         // Record statistics
         ShowcaseStatistics.recordShareCreation(owner, ShareType.MERCHANT,
@@ -174,11 +229,17 @@ public final class ShowcaseManager {
     }
 
     public static boolean openSharedContent(ServerPlayerEntity viewer, String id) {
-        ShareEntry entry = ShareRepository.get(id);
-
-        if (entry == null || isExpired(entry)) {
+        ShareEntry entry = liveShare(id);
+        if (entry == null) {
             viewer.sendMessage(TextUtils.warning(Text.translatable("showcase.message.invalid_or_expired")), false);
-            ShareRepository.remove(id);
+            return false;
+        }
+
+        // Decoding the payload here is the first time a loaded share pays for its items. A spilled
+        // payload is read back off the server thread, so only a payload in memory fails right away.
+        CompletableFuture<Boolean> payload = ShareTierStore.loadPayload(entry);
+        if (payload.isDone() && !payload.join()) {
+            discardUnreadable(viewer, id, entry);
             return false;
         }
 
@@ -196,19 +257,49 @@ public final class ShowcaseManager {
         net.minecraft.util.ActionResult result = ShowcaseAPI.fireShowcaseViewedEvent(viewer, entry, id, Objects.requireNonNullElse(originalOwner, viewer));
         if (result == net.minecraft.util.ActionResult.FAIL) return false;
 
-        entry.incrementViewCount();
+        ShareRepository.incrementViewCount(id);
 
         // Record view statistics
         ShowcaseStatistics.recordShareView(originalOwner != null ? originalOwner : viewer, viewer);
 
+        openWhenLoaded(viewer, id, entry, payload);
+        return true;
+    }
+
+    private static void openWhenLoaded(ServerPlayerEntity viewer, String id, ShareEntry entry, CompletableFuture<Boolean> payload) {
+        // Building the screen can walk large inventories, so it runs within the tick budget
+        payload.thenAccept(loaded -> TickWorkScheduler.post(() -> {
+            if (!loaded) {
+                discardUnreadable(viewer, id, entry);
+            } else if (!openScreen(viewer, entry)) {
+                // Spilled again by a budget pass before this tick, read it back once more
+                openWhenLoaded(viewer, id, entry, ShareTierStore.loadPayload(entry));
+            }
+        }));
+    }
+
+    private static void discardUnreadable(ServerPlayerEntity viewer, String id, ShareEntry entry) {
+        viewer.sendMessage(TextUtils.warning(Text.translatable("showcase.message.invalid_or_expired")), false);
+        if (ShareRepository.get(id) == entry) ShareRepository.remove(id);
+    }
+
+    /**
+     * @return false if the payload is no longer in memory and has to be read back first
+     */
+    private static boolean openScreen(ServerPlayerEntity viewer, ShareEntry entry) {
+        if (viewer.isRemoved()) return true;
+
+        ReadOnlyInventory inv = entry.getLoadedInventory();
+        MerchantContext merchant = entry.getLoadedMerchantContext();
+        if (entry.getType() == ShareType.MERCHANT ? merchant == null : inv == null) return false;
+
         try {
-            var gui = factory(viewer, entry);
+            var gui = factory(viewer, entry, inv, merchant);
             if (gui != null) gui.open();
-            return true;
         } catch (Exception e) {
             ShowcaseMod.LOGGER.error("Failed to open showcase screen", e);
-            return false;
         }
+        return true;
     }
 
     public static boolean isOnCooldown(ServerPlayerEntity player, ShareType type) {
@@ -236,19 +327,56 @@ public final class ShowcaseManager {
         // Record share expiry statistics (pass null if player is offline)
         ShowcaseStatistics.recordShareExpiry(null, e.getType());
 
-        e.invalidShare();
-        return true;
+        return ShareRepository.invalidate(id);
     }
 
     public static int expireSharesByPlayer(UUID uuid) {
-        int count = 0;
-        for (Map.Entry<String, ShareEntry> e : ShareRepository.getAllShares().entrySet()) {
-            if (uuid.equals(e.getValue().getOwnerUuid())) {
-                e.getValue().invalidShare();
-                count++;
-            }
-        }
-        return count;
+        return expireSharesWhere(uuid, entry -> true).affected();
+    }
+
+    /**
+     * Expires every matching share in one pass, then updates statistics and requests a checkpoint once.
+     *
+     * @param owner only consider this player's shares, or null for all shares
+     * @param filter selects the shares to expire
+     * @return what was expired
+     */
+    public static ShareRepository.BulkResult expireSharesWhere(UUID owner, Predicate<ShareEntry> filter) {
+        return finishBulk(ShareRepository.expireWhere(owner, filter), null);
+    }
+
+    /**
+     * Removes every matching share in one pass, then updates statistics and requests a checkpoint once.
+     *
+     * @param owner only consider this player's shares, or null for all shares
+     * @param filter selects the shares to remove
+     * @return what was removed
+     */
+    public static ShareRepository.BulkResult removeSharesWhere(UUID owner, Predicate<ShareEntry> filter) {
+        return finishBulk(ShareRepository.removeWhere(owner, filter), null);
+    }
+
+    /**
+     * Gives every matching share to another player in one pass, then updates statistics and
+     * requests a checkpoint once.
+     *
+     * @param owner only consider this player's shares, or null for all shares
+     * @param filter selects the shares to transfer
+     * @param newOwner the player who will own the shares
+     * @return what was transferred
+     */
+    public static ShareRepository.BulkResult transferSharesWhere(UUID owner, Predicate<ShareEntry> filter, UUID newOwner) {
+        return finishBulk(ShareRepository.transferWhere(owner, filter, newOwner), newOwner);
+    }
+
+    private static ShareRepository.BulkResult finishBulk(ShareRepository.BulkResult result, UUID newOwner) {
+        if (result.isEmpty()) return result;
+
+        Set<UUID> players = new HashSet<>(result.byOwner().keySet());
+        if (newOwner != null) players.add(newOwner);
+        ShowcaseStatistics.recordBulkChange(players);
+        ShareCheckpointer.requestCheckpoint();
+        return result;
     }
 
     public static void setShares(Map<String, ShareEntry> shares) {
@@ -258,7 +386,7 @@ public final class ShowcaseManager {
     }
 
     public static ShareEntry getShareById(String id) {
-        return ShareRepository.get(id);
+        return liveShare(id);
     }
 
     public static Map<String, ShareEntry> getActiveShares() {
@@ -276,25 +404,29 @@ public final class ShowcaseManager {
     public static void clearAll() {
         ShareRepository.clear();
         CooldownManager.clearAllCooldowns();
-        if (!SCHEDULER.isShutdown()) {
-            SCHEDULER.shutdownNow();
-        }
+        stopHousekeeping();
     }
 
     public static ShareEntry getShareEntry(String id) {
-        return ShareRepository.get(id);
+        return liveShare(id);
     }
 
+    /**
+     * Gets a copy of the item of an item share without waiting for the spill file.
+     *
+     * @param shareId the share ID
+     * @return the item, or null if there is no such item share or its payload is spilled; a spilled
+     * payload is read back in the background, so a later call finds it
+     */
     public static ItemStack getItemStackWithID(String shareId) {
         ShareEntry shareEntry = getShareEntry(shareId);
         if (shareEntry == null || shareEntry.getType() != ITEM) return null;
-        return shareEntry.getInventory().getStack(0).copy();
+        ReadOnlyInventory inventory = shareEntry.getLoadedInventory();
+        return inventory != null ? inventory.getStack(0).copy() : null;
     }
 
     public static List<ShareEntry> getPlayerShares(String playerUuid) {
-        return ShareRepository.getAllShares().values().stream()
-                .filter(entry -> entry.getOwnerUuid().toString().equals(playerUuid))
-                .collect(Collectors.toList());
+        return ShareRepository.getPlayerShares(playerUuid);
     }
 
     public static boolean cancelShare(String shareId) {
@@ -306,11 +438,27 @@ public final class ShowcaseManager {
     }
 
     public static List<String> getShareIdCompletions() {
-        return new ArrayList<>(getUnmodifiableActiveShares().keySet());
+        List<String> ids = new ArrayList<>();
+        getUnmodifiableActiveShares().forEach((id, entry) -> {
+            if (!isExpired(entry)) ids.add(id);
+            else ExpirySweeper.expireOnRead(id);
+        });
+        return ids;
+    }
+
+    /**
+     * @param owner the player whose shares to list
+     * @return the IDs of the player's shares that have not expired
+     */
+    public static List<String> getShareIdCompletions(UUID owner) {
+        List<String> ids = new ArrayList<>();
+        for (String id : ShareRepository.getPlayerShareIds(owner)) {
+            if (liveShare(id) != null) ids.add(id);
+        }
+        return ids;
     }
 
-    private static ContainerGui factory(ServerPlayerEntity viewer, ShareEntry entry) {
-        ReadOnlyInventory inv = entry.getInventory();
+    private static ContainerGui factory(ServerPlayerEntity viewer, ShareEntry entry, ReadOnlyInventory inv, MerchantContext merchant) {
         MinecraftServer server = ServerPlayerCompat.getServer(viewer);
 
         if (server == null) return null;
@@ -359,7 +507,7 @@ public final class ShowcaseManager {
             }
 
             case MERCHANT -> {
-                new ReadonlyMerchantGui(viewer, entry.getMerchantContext()).open();
+                new ReadonlyMerchantGui(viewer, merchant).open();
                 yield null;
             }
 
@@ -379,18 +527,29 @@ public final class ShowcaseManager {
         return e.getIsInvalid() || Instant.now().toEpochMilli() - e.getTimestamp() > e.getDuration() * 1000L;
     }
 
-    private static void purgeExpired() {
-        long now = Instant.now().toEpochMilli();
-        Set<Map.Entry<String, ShareEntry>> expiredEntries = ShareRepository.getAllShares().entrySet().stream()
-                .filter(e -> now - e.getValue().getTimestamp() > e.getValue().getDuration() * 1000L || e.getValue().getIsInvalid())
-                .collect(Collectors.toSet());
+    /**
+     * Looks up a share, treating one that is past its expiry or cancelled as already gone. Such a
+     * share is removed on the spot instead of waiting for the {@link ExpirySweeper}.
+     */
+    private static ShareEntry liveShare(String id) {
+        ShareEntry entry = ShareRepository.get(id);
+        if (entry == null || !isExpired(entry)) return entry;
 
-        // Record expiry statistics for naturally expired shares
-        expiredEntries.forEach(entry -> {
-            ShowcaseStatistics.recordShareExpiry(null, entry.getValue().getType());
-        });
+        ExpirySweeper.expireOnRead(id);
+        return null;
+    }
 
-        // Remove expired shares
-        expiredEntries.forEach(entry -> ShareRepository.remove(entry.getKey()));
+    /**
+     * Removes an expired share on the server thread.
+     *
+     * @return true if the share was still stored
+     */
+    static boolean removeExpired(String shareId) {
+        ShareEntry entry = ShareRepository.get(shareId);
+        if (entry == null) return false;
+
+        // Record expiry statistics for naturally expired shares
+        ShowcaseStatistics.recordShareExpiry(null, entry.getType());
+        return ShareRepository.remove(shareId);
     }
 }
@@ -65,6 +65,10 @@ public class ModConfig {
         @Comment("Enable underline for clickable text messages")
         public boolean enableClickableTextUnderline = false;
 
+        @Comment({"Prefix prepended to every new share ID, e.g. a server name when several servers share storage.",
+                "Up to 16 letters, digits, '-' or '_'. Leave empty for no prefix."})
+        public String idPrefix = "";
+
         public ShareLinkSettings() {}
     }
 
@@ -191,6 +195,12 @@ public class ModConfig {
         @Comment("Maximum number of active shares per player")
         public int maxSharesPerPlayer = 10;
 
+        @Comment({"What happens when a player at maxSharesPerPlayer creates another share:",
+                  "NONE: The limit is not enforced, as in earlier versions",
+                  "REJECT: The new share is refused until one of the player's shares expires or is cancelled",
+                  "EVICT_OLDEST: The player's oldest share is cancelled to make room, and the player is told which one"})
+        public ShareLimitPolicy shareLimitPolicy = ShareLimitPolicy.NONE;
+
         @Comment("Cache duration for placeholder results in seconds")
         public int cacheDuration = 30;
 
@@ -210,9 +220,65 @@ public class ModConfig {
         @Comment("Enable conditional placeholders (if_xxx_yes_no style)")
         public boolean enableConditionalPlaceholders = true;
 
+        public enum ShareLimitPolicy { NONE, REJECT, EVICT_OLDEST }
+
         public PlaceholderSettings() {}
     }
 
+    @Comment("Settings for how showcase data is persisted")
+    public StorageSettings storage = new StorageSettings();
+
+    @Configuration
+    public static class StorageSettings {
+        @Comment({"Append share changes to a journal file as they happen instead of",
+                  "rewriting every share at shutdown. Protects active shares against crashes."})
+        public boolean journalEnabled = true;
+
+        @Comment("Number of journal records after which the journal is compacted into the share snapshot")
+        public int journalCompactionThreshold = 1000;
+
+        @Comment({"Storage backend for shares and statistics:",
+                  "JSON: One human-readable file per data set, larger and slower to load",
+                  "NBT: One compressed binary file per data set",
+                  "EMBEDDED: Single transactional showcase.db file, only changed entries are written",
+                  "Existing JSON data is migrated automatically by NBT and EMBEDDED"})
+        public Format format = Format.JSON;
+
+        @Comment({"Write changed showcase data to disk every N server autosaves",
+                  "0: Only save at shutdown"})
+        public int autosaveFlushInterval = 1;
+
+        @Comment({"Seconds between background checkpoints of active shares",
+                  "0: Disable time-based checkpoints"})
+        public int checkpointIntervalSeconds = 300;
+
+        @Comment({"Number of share changes that triggers a background checkpoint early",
+                  "0: Disable change-based checkpoints"})
+        public int checkpointMutationThreshold = 500;
+
+        @Comment({"Number of share contents kept in memory; contents of the least recently",
+                  "created or viewed shares beyond this are moved to showcase-spill.db until viewed again",
+                  "0: Keep every share in memory"})
+        public int hotShareLimit = 1000;
+
+        public enum Format { JSON, NBT, EMBEDDED }
+
+        public StorageSettings() {}
+    }
+
+    @Comment("Settings for how much server thread time Showcase may use")
+    public PerformanceSettings performance = new PerformanceSettings();
+
+    @Configuration
+    public static class PerformanceSettings {
+        @Comment({"Microseconds per tick Showcase may spend on deferrable work such as opening share screens",
+                  "and removing expired shares; work that does not fit waits for the next tick",
+                  "0: No limit, all pending work runs every tick"})
+        public int tickBudgetMicros = 2000;
+
+        public PerformanceSettings() {}
+    }
+
     private static Map<ShowcaseManager.ShareType, ShareSettings> defaultShareSettings() {
         Map<ShowcaseManager.ShareType, ShareSettings> defaults = new EnumMap<>(ShowcaseManager.ShareType.class);
 
@@ -120,6 +120,16 @@ public class ModConfigManager {
                 return false;
             }
 
+            if (config.storage == null || !isStorageSettingsValid(config.storage)) {
+                ShowcaseMod.LOGGER.warn("Storage settings are missing or invalid");
+                return false;
+            }
+
+            if (config.performance == null || !isPerformanceSettingsValid(config.performance)) {
+                ShowcaseMod.LOGGER.warn("Performance settings are missing or invalid");
+                return false;
+            }
+
             return true;
         } catch (Exception e) {
             ShowcaseMod.LOGGER.error("Error during config validation", e);
@@ -225,6 +235,12 @@ public class ModConfigManager {
             merged.placeholders = (source.placeholders != null && isPlaceholderSettingsValid(source.placeholders))
                 ? source.placeholders : defaults.placeholders;
 
+            merged.storage = (source.storage != null && isStorageSettingsValid(source.storage))
+                ? source.storage : defaults.storage;
+
+            merged.performance = (source.performance != null && isPerformanceSettingsValid(source.performance))
+                ? source.performance : defaults.performance;
+
         } catch (Exception e) {
             ShowcaseMod.LOGGER.error("Error during config merge, using defaults", e);
             return defaults;
@@ -240,15 +256,30 @@ public class ModConfigManager {
     }
 
     private static boolean isShareLinkSettingsValid(ModConfig.ShareLinkSettings settings) {
-        return settings.minExpiryTime > 0 && settings.defaultExpiryTime > 0;
+        return settings.minExpiryTime > 0 && settings.defaultExpiryTime > 0 &&
+               settings.idPrefix != null && settings.idPrefix.matches("[A-Za-z0-9_-]{0,16}");
     }
 
     private static boolean isPlaceholderSettingsValid(ModConfig.PlaceholderSettings settings) {
         return settings.maxSharesPerPlayer > 0 &&
+               settings.shareLimitPolicy != null &&
                settings.cacheDuration >= 0 &&
                settings.statisticsUpdateInterval > 0;
     }
 
+    private static boolean isStorageSettingsValid(ModConfig.StorageSettings settings) {
+        return settings.journalCompactionThreshold > 0 &&
+               settings.format != null &&
+               settings.autosaveFlushInterval >= 0 &&
+               settings.checkpointIntervalSeconds >= 0 &&
+               settings.checkpointMutationThreshold >= 0 &&
+               settings.hotShareLimit >= 0;
+    }
+
+    private static boolean isPerformanceSettingsValid(ModConfig.PerformanceSettings settings) {
+        return settings.tickBudgetMicros >= 0;
+    }
+
     public static void reloadConfig() {
         try {
             // Create backup before reloading
@@ -400,10 +431,18 @@ public class ModConfigManager {
         return getConfig().shareLink.defaultExpiryTime;
     }
 
+    public static String getShareIdPrefix() {
+        return getConfig().shareLink.idPrefix;
+    }
+
     public static int getMaxSharesPerPlayer() {
         return getConfig().placeholders.maxSharesPerPlayer;
     }
 
+    public static ModConfig.PlaceholderSettings.ShareLimitPolicy getShareLimitPolicy() {
+        return getConfig().placeholders.shareLimitPolicy;
+    }
+
     public static boolean isPlaceholderExtensionsEnabled() {
         return getConfig().placeholders.enabled;
     }
@@ -432,4 +471,36 @@ public class ModConfigManager {
     public static boolean isConditionalPlaceholdersEnabled() {
         return getConfig().placeholders.enableConditionalPlaceholders;
     }
+
+    public static boolean isShareJournalEnabled() {
+        return getConfig().storage.journalEnabled;
+    }
+
+    public static int getJournalCompactionThreshold() {
+        return getConfig().storage.journalCompactionThreshold;
+    }
+
+    public static ModConfig.StorageSettings.Format getStorageFormat() {
+        return getConfig().storage.format;
+    }
+
+    public static int getAutosaveFlushInterval() {
+        return getConfig().storage.autosaveFlushInterval;
+    }
+
+    public static int getCheckpointIntervalSeconds() {
+        return getConfig().storage.checkpointIntervalSeconds;
+    }
+
+    public static int getCheckpointMutationThreshold() {
+        return getConfig().storage.checkpointMutationThreshold;
+    }
+
+    public static int getHotShareLimit() {
+        return getConfig().storage.hotShareLimit;
+    }
+
+    public static int getTickBudgetMicros() {
+        return getConfig().performance.tickBudgetMicros;
+    }
 }
@@ -0,0 +1,113 @@
+package com.showcase.data;
+
+import com.google.gson.JsonObject;
+import com.showcase.ShowcaseMod;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps records that could not be loaded in a side file next to their data file, so one
+ * unreadable entry is set aside instead of discarding the whole file.
+ * <p>
+ * Each quarantined record is appended to {@code <data file>.quarantine.jsonl} as one JSON line
+ * holding the record key, the reason it was rejected and its raw content, so it can be inspected
+ * or restored by hand once the cause (for example a removed mod) is fixed.
+ */
+public final class DataQuarantine {
+    private static final String SUFFIX = ".quarantine.jsonl";
+
+    private static final AtomicLong quarantinedRecords = new AtomicLong();
+    private static final AtomicLong salvagedRecords = new AtomicLong();
+
+    /**
+     * Result of loading a file record by record.
+     *
+     * @param loaded records decoded successfully
+     * @param quarantined records moved to the quarantine file
+     */
+    public record LoadReport(int loaded, int quarantined) {}
+
+    private DataQuarantine() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Appends a rejected record to the quarantine file of a data file.
+     *
+     * @param dataFile the file the record was read from
+     * @param key the record key
+     * @param reason why the record was rejected
+     * @param content the raw record content
+     */
+    public static synchronized void quarantine(@NotNull Path dataFile, @NotNull String key,
+                                               @NotNull String reason, @NotNull String content) {
+        quarantinedRecords.incrementAndGet();
+
+        JsonObject line = new JsonObject();
+        line.addProperty("key", key);
+        line.addProperty("reason", reason);
+        line.addProperty("time", System.currentTimeMillis());
+        line.addProperty("content", content);
+
+        Path quarantinePath = getQuarantinePath(dataFile);
+        try {
+            Files.createDirectories(quarantinePath.getParent());
+            Files.writeString(quarantinePath, line + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            ShowcaseMod.LOGGER.error("Failed to quarantine record '{}' of {}, it is dropped", key, dataFile, e);
+        }
+    }
+
+    /**
+     * Logs the outcome of a record-by-record load and adds it to the counters.
+     *
+     * @param path the storage path
+     * @param report the load result
+     */
+    public static void report(@NotNull String path, @NotNull LoadReport report) {
+        if (report.quarantined() == 0) return;
+
+        salvagedRecords.addAndGet(report.loaded());
+        ShowcaseMod.LOGGER.warn("Loaded {} records for path {}, quarantined {} unreadable records to {}",
+                report.loaded(), path, report.quarantined(), "*" + SUFFIX);
+    }
+
+    /**
+     * Computes the checksum stored alongside each record.
+     *
+     * @param content the record's canonical encoding
+     * @return the CRC32 of the content
+     */
+    public static long checksum(@NotNull String content) {
+        CRC32 crc = new CRC32();
+        crc.update(content.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * @return records quarantined since startup
+     */
+    public static long getQuarantinedCount() {
+        return quarantinedRecords.get();
+    }
+
+    /**
+     * @return intact records recovered from files that also held unreadable records
+     */
+    public static long getSalvagedCount() {
+        return salvagedRecords.get();
+    }
+
+    @NotNull
+    public static Path getQuarantinePath(@NotNull Path dataFile) {
+        return dataFile.resolveSibling(dataFile.getFileName() + SUFFIX);
+    }
+}
@@ -0,0 +1,126 @@
+package com.showcase.data;
+
+import com.mojang.serialization.Codec;
+import com.showcase.ShowcaseMod;
+import com.showcase.config.ModConfig;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.WorldSavePath;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A single data file under the world's global-mod-data directory, written through a {@link Codec}.
+ *
+ * @param <T> the stored data type
+ */
+public interface DataStorage<T> {
+    String DIR = "global-mod-data";
+
+    /**
+     * Encoded data ready to be written.
+     *
+     * @param target the file, or storage key, the write replaces
+     * @param size the encoded size in bytes
+     * @param task writes the encoded data when run
+     */
+    record PreparedWrite(Path target, int size, DataWritePipeline.IoTask task) {}
+
+    /**
+     * @return the file name without extension
+     */
+    String path();
+
+    Codec<T> codec();
+
+    /**
+     * @return the file extension including the leading dot
+     */
+    String extension();
+
+    /**
+     * Encodes the data into the file's on-disk representation.
+     *
+     * @param server the server providing registry access
+     * @param data the data to encode
+     * @return the encoded file content
+     */
+    byte[] serialize(MinecraftServer server, T data) throws Exception;
+
+    /**
+     * Decodes the file's on-disk representation.
+     *
+     * @param server the server providing registry access
+     * @param content the encoded file content
+     * @return the decoded data
+     */
+    T deserialize(MinecraftServer server, byte[] content) throws Exception;
+
+    T load(MinecraftServer server);
+
+    default Path getFilePath(MinecraftServer server) {
+        return server.getSavePath(WorldSavePath.ROOT).resolve(DIR).resolve(path() + extension());
+    }
+
+    /**
+     * Encodes the data on the calling thread into a write that can be queued or run later.
+     * By default the write replaces the data file atomically.
+     *
+     * @param server the server providing registry access
+     * @param data the data to encode
+     * @return the prepared write
+     */
+    default PreparedWrite prepareWrite(MinecraftServer server, T data) throws Exception {
+        Path filePath = getFilePath(server);
+        byte[] content = serialize(server, data);
+        return new PreparedWrite(filePath, content.length, () -> DataWritePipeline.writeAtomically(filePath, content));
+    }
+
+    /**
+     * Encodes the data on the calling thread and queues a crash-safe write of it on the I/O executor.
+     *
+     * @param server the server whose world directory holds the data
+     * @param data the data to save, or null to delete the file
+     * @return true if the data was encoded and queued; see {@link #saveAsync} to learn when it is on disk
+     */
+    default boolean save(MinecraftServer server, T data) {
+        return !saveAsync(server, data).isCompletedExceptionally();
+    }
+
+    /**
+     * Encodes the data on the calling thread and queues a crash-safe write of it on the I/O executor.
+     *
+     * @param server the server whose world directory holds the data
+     * @param data the data to save, or null to delete the file
+     * @return completes when the data is on disk, exceptionally if it could not be encoded or written
+     */
+    default CompletableFuture<Void> saveAsync(MinecraftServer server, T data) {
+        Path filePath = getFilePath(server);
+
+        if (data == null) {
+            return DataWritePipeline.submitDelete(filePath);
+        }
+
+        try {
+            return DataWritePipeline.submit(prepareWrite(server, data));
+        } catch (Exception e) {
+            ShowcaseMod.LOGGER.error("Unexpected error while saving global data for path {}\n{}", path(), e.fillInStackTrace());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Creates a storage through the backend of the given format.
+     *
+     * @param path the file name without extension
+     * @param codec the data codec
+     * @param format the configured storage format
+     * @param streaming the map to decode entry by entry, or null
+     * @return the storage
+     */
+    static <T> DataStorage<T> of(String path, Codec<T> codec, ModConfig.StorageSettings.Format format,
+                                 @Nullable StreamingMap<T, ?> streaming) {
+        return StorageBackends.forFormat(format).create(path, codec, streaming);
+    }
+}
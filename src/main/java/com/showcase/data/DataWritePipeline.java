@@ -0,0 +1,253 @@
+package com.showcase.data;
+
+import com.showcase.ShowcaseMod;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes encoded data files on the {@link IoExecutor}.
+ * <p>
+ * Callers encode their snapshot on their own thread and hand over the bytes. Each file is written
+ * to a temp sibling, fsynced and atomically renamed over the target, so a crash mid-write never
+ * leaves a truncated file behind. Back-to-back writes of the same file that are still queued are
+ * coalesced into a single write of the newest content. Different files are written in parallel.
+ * <p>
+ * Every submit returns a future that completes once the write, or the newer write that replaced
+ * it, is on disk, and completes exceptionally if that write failed.
+ */
+public final class DataWritePipeline {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final Map<Path, PendingWrite> PENDING = new ConcurrentHashMap<>();
+    private static final Set<Path> IN_FLIGHT = ConcurrentHashMap.newKeySet();
+    private static final Set<CompletableFuture<Void>> DRAINS = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicLong writesCompleted = new AtomicLong();
+    private static final AtomicLong writesFailed = new AtomicLong();
+    private static final AtomicLong writesCoalesced = new AtomicLong();
+    private static final AtomicLong totalLatencyNanos = new AtomicLong();
+    private static final AtomicLong maxLatencyNanos = new AtomicLong();
+    private static volatile long lastLatencyNanos = 0;
+
+    /**
+     * A write that runs on the I/O executor.
+     */
+    @FunctionalInterface
+    public interface IoTask {
+        void run() throws IOException;
+    }
+
+    private record PendingWrite(IoTask task, long enqueuedAt, CompletableFuture<Void> done) {}
+
+    /**
+     * Snapshot of the pipeline counters.
+     *
+     * @param queueDepth files waiting to be written
+     * @param completed writes finished successfully
+     * @param failed writes that threw
+     * @param coalesced writes replaced by a newer write of the same file before running
+     * @param lastLatencyMs time from enqueue to rename of the most recent write
+     * @param avgLatencyMs mean enqueue-to-rename time
+     * @param maxLatencyMs worst enqueue-to-rename time
+     */
+    public record Metrics(int queueDepth, long completed, long failed, long coalesced,
+                          double lastLatencyMs, double avgLatencyMs, double maxLatencyMs) {}
+
+    private DataWritePipeline() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Queues an atomic write of the given bytes. If a write of the same file is still queued,
+     * its content is replaced instead of queueing a second write.
+     *
+     * @param target the final file path
+     * @param content the encoded file content
+     * @return completes when the content is on disk
+     */
+    public static CompletableFuture<Void> submit(@NotNull Path target, byte @NotNull [] content) {
+        return submit(target, () -> writeAtomically(target, content));
+    }
+
+    /**
+     * Queues a write prepared by a storage.
+     *
+     * @param write the prepared write
+     * @return completes when the write has run
+     */
+    public static CompletableFuture<Void> submit(@NotNull DataStorage.PreparedWrite write) {
+        return submit(write.target(), write.task());
+    }
+
+    /**
+     * Queues an arbitrary write under the given key. A queued task for the same key is replaced,
+     * so the task must write the complete current state rather than an increment.
+     *
+     * @param target the file, or storage key, the task writes
+     * @param task the write to run on the I/O executor
+     * @return completes when the task, or a later task that replaced it, has run
+     */
+    public static CompletableFuture<Void> submit(@NotNull Path target, @NotNull IoTask task) {
+        PendingWrite write = new PendingWrite(task, System.nanoTime(), new CompletableFuture<>());
+        enqueue(target, write);
+        return write.done();
+    }
+
+    /**
+     * Queues deletion of the given file, superseding any queued write of it.
+     *
+     * @param target the file to delete
+     * @return completes when the file is gone
+     */
+    public static CompletableFuture<Void> submitDelete(@NotNull Path target) {
+        return submit(target, () -> Files.deleteIfExists(target));
+    }
+
+    private static void enqueue(Path target, PendingWrite write) {
+        PendingWrite previous = PENDING.put(target, write);
+        if (previous != null) {
+            // The task already scheduled for this file will pick up the newer content, and the
+            // replaced write is done when the newer one is
+            writesCoalesced.incrementAndGet();
+            write.done().whenComplete((result, error) -> {
+                if (error != null) previous.done().completeExceptionally(error);
+                else previous.done().complete(null);
+            });
+            return;
+        }
+        CompletableFuture<Void> drain = IoExecutor.submit(target, () -> drain(target));
+        if (!drain.isDone()) {
+            DRAINS.add(drain);
+            drain.whenComplete((result, error) -> DRAINS.remove(drain));
+        }
+    }
+
+    private static void drain(Path target) {
+        IN_FLIGHT.add(target);
+        PendingWrite write = PENDING.remove(target);
+        if (write == null) {
+            IN_FLIGHT.remove(target);
+            return;
+        }
+
+        Exception failure = null;
+        try {
+            write.task().run();
+            writesCompleted.incrementAndGet();
+            recordLatency(System.nanoTime() - write.enqueuedAt());
+        } catch (Exception e) {
+            failure = e;
+            writesFailed.incrementAndGet();
+            ShowcaseMod.LOGGER.error("Failed to write data file {}", target, e);
+        } finally {
+            IN_FLIGHT.remove(target);
+        }
+
+        if (failure != null) write.done().completeExceptionally(failure);
+        else write.done().complete(null);
+    }
+
+    private static void recordLatency(long nanos) {
+        lastLatencyNanos = nanos;
+        totalLatencyNanos.addAndGet(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Writes the bytes to a temp sibling, fsyncs it and renames it over the target.
+     * Runs on the calling thread.
+     *
+     * @param target the final file path
+     * @param content the file content
+     * @throws IOException if any step fails; the previous target file is left untouched
+     */
+    public static void writeAtomically(@NotNull Path target, byte @NotNull [] content) throws IOException {
+        Path tempPath = getTempPath(target);
+        Files.createDirectories(target.getParent());
+
+        try (FileChannel out = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+
+        try {
+            Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes a temp file left over by a write that was interrupted before its rename.
+     * The target itself still holds the previous complete content in that case.
+     *
+     * @param target the final file path
+     */
+    public static void discardStaleTemp(@NotNull Path target) {
+        if (isPending(target)) return;
+        try {
+            if (Files.deleteIfExists(getTempPath(target))) {
+                ShowcaseMod.LOGGER.warn("Discarded incomplete write of {}", target);
+            }
+        } catch (IOException e) {
+            ShowcaseMod.LOGGER.warn("Failed to remove stale temp file for {}", target, e);
+        }
+    }
+
+    /**
+     * Checks whether a write of the given file is queued or in progress.
+     *
+     * @param target the final file path
+     * @return true if the file has an unfinished write
+     */
+    public static boolean isPending(@NotNull Path target) {
+        return PENDING.containsKey(target) || IN_FLIGHT.contains(target);
+    }
+
+    /**
+     * Blocks until every write queued before this call has finished.
+     *
+     * @param timeoutSeconds maximum time to wait
+     * @return true if the queue drained in time
+     */
+    public static boolean flush(long timeoutSeconds) {
+        if (IoExecutor.awaitAll(DRAINS, timeoutSeconds)) return true;
+        ShowcaseMod.LOGGER.error("Timed out waiting for {} pending data writes", PENDING.size());
+        return false;
+    }
+
+    @NotNull
+    public static Metrics getMetrics() {
+        long completed = writesCompleted.get();
+        return new Metrics(
+                PENDING.size(),
+                completed,
+                writesFailed.get(),
+                writesCoalesced.get(),
+                lastLatencyNanos / 1_000_000.0,
+                completed > 0 ? totalLatencyNanos.get() / 1_000_000.0 / completed : 0.0,
+                maxLatencyNanos.get() / 1_000_000.0
+        );
+    }
+
+    private static Path getTempPath(Path target) {
+        return target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+    }
+}
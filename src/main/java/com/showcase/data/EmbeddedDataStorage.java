@@ -0,0 +1,181 @@
+package com.showcase.data;
+
+import com.mojang.serialization.Codec;
+import com.showcase.ShowcaseMod;
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A storage kept in the {@link EmbeddedStorageBackend} store.
+ * <p>
+ * Data whose whole value is a streamable map is stored as one key per entry under
+ * {@code <path>/}; anything else is stored as a single key. Values are NBT encoded like
+ * {@link NbtCodecDataStorage}. A JSON file of the same name is imported on first load and kept as
+ * {@code .json.migrated}.
+ * <p>
+ * {@link #getFilePath} does not name a real file; it identifies this storage's queued writes and
+ * locates its share journal.
+ */
+record EmbeddedDataStorage<T>(EmbeddedStorageBackend backend, String path, Codec<T> codec,
+                              @Nullable StreamingMap<T, ?> streaming) implements DataStorage<T> {
+    private static final String ENTRY_SEPARATOR = "/";
+
+    @Override
+    public String extension() {
+        return "";
+    }
+
+    @Override
+    public byte[] serialize(MinecraftServer server, T data) throws IOException {
+        return NbtCodecDataStorage.encode(server, codec, data);
+    }
+
+    @Override
+    public T deserialize(MinecraftServer server, byte[] content) throws IOException {
+        return NbtCodecDataStorage.decode(server, codec, content);
+    }
+
+    @Override
+    public PreparedWrite prepareWrite(MinecraftServer server, T data) throws Exception {
+        Map<String, byte[]> entries = encodeEntries(server, data);
+        int size = entries.values().stream().mapToInt(value -> value.length).sum();
+
+        return new PreparedWrite(getFilePath(server), size, () -> {
+            EmbeddedStore store = backend.store(server);
+            if (isPerEntry()) {
+                store.replaceAll(entryPrefix(), entries);
+            } else {
+                store.commit(entries, List.of());
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAsync(MinecraftServer server, T data) {
+        if (data != null) {
+            return DataStorage.super.saveAsync(server, data);
+        }
+
+        // Deleting means removing every key of this storage
+        return DataWritePipeline.submit(getFilePath(server), () -> {
+            EmbeddedStore store = backend.store(server);
+            if (isPerEntry()) {
+                store.replaceAll(entryPrefix(), Map.of());
+            } else {
+                store.commit(Map.of(), List.of(path));
+            }
+        });
+    }
+
+    @Override
+    public T load(MinecraftServer server) {
+        if (DataWritePipeline.isPending(getFilePath(server))) {
+            DataWritePipeline.flush(30);
+        }
+
+        try {
+            EmbeddedStore store = backend.store(server);
+            boolean present = isPerEntry() ? store.containsPrefix(entryPrefix()) : store.contains(path);
+            if (!present) {
+                return migrateFromJson(server, store);
+            }
+
+            return isPerEntry() ? loadEntries(server, store, streaming) : deserialize(server, store.get(path));
+        } catch (Exception e) {
+            ShowcaseMod.LOGGER.error("Failed to load embedded data for path {}", this.path, e);
+            return null;
+        }
+    }
+
+    private <V> T loadEntries(MinecraftServer server, EmbeddedStore store, StreamingMap<T, V> streaming) throws IOException {
+        Map<String, V> entries = new HashMap<>();
+        Map<String, byte[]> corrupted = new LinkedHashMap<>();
+        Path quarantineTarget = getFilePath(server);
+        int quarantined = 0;
+
+        for (Map.Entry<String, byte[]> entry : store.getAll(entryPrefix(), corrupted).entrySet()) {
+            String key = entry.getKey().substring(entryPrefix().length());
+            try {
+                entries.put(key, NbtCodecDataStorage.decode(server, streaming.valueCodec(), entry.getValue()));
+            } catch (Exception e) {
+                quarantined++;
+                ShowcaseMod.LOGGER.warn("Quarantining entry '{}' in embedded data for path {}: {}", key, this.path, e.getMessage());
+                DataQuarantine.quarantine(quarantineTarget, key, String.valueOf(e.getMessage()),
+                        Base64.getEncoder().encodeToString(entry.getValue()));
+            }
+        }
+
+        for (Map.Entry<String, byte[]> entry : corrupted.entrySet()) {
+            String key = entry.getKey().substring(entryPrefix().length());
+            quarantined++;
+            ShowcaseMod.LOGGER.warn("Quarantining entry '{}' in embedded data for path {}: checksum mismatch", key, this.path);
+            DataQuarantine.quarantine(quarantineTarget, key, "Checksum mismatch",
+                    Base64.getEncoder().encodeToString(entry.getValue()));
+        }
+
+        DataQuarantine.report(this.path, new DataQuarantine.LoadReport(entries.size(), quarantined));
+        return streaming.merge().apply(null, entries);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, byte[]> encodeEntries(MinecraftServer server, T data) throws IOException {
+        Map<String, byte[]> encoded = new HashMap<>();
+        if (!isPerEntry()) {
+            encoded.put(path, serialize(server, data));
+            return encoded;
+        }
+
+        Codec<Object> valueCodec = (Codec<Object>) streaming.valueCodec();
+        for (Map.Entry<String, ?> entry : ((Map<String, ?>) data).entrySet()) {
+            encoded.put(entryPrefix() + entry.getKey(), NbtCodecDataStorage.encode(server, valueCodec, entry.getValue()));
+        }
+        return encoded;
+    }
+
+    private T migrateFromJson(MinecraftServer server, EmbeddedStore store) {
+        JsonCodecDataStorage<T> legacy = new JsonCodecDataStorage<>(this.path, this.codec, this.streaming);
+        Path legacyPath = legacy.getFilePath(server);
+        if (!Files.exists(legacyPath)) {
+            return null;
+        }
+
+        T data = legacy.load(server);
+        if (data == null) {
+            return null;
+        }
+
+        try {
+            store.commit(encodeEntries(server, data), List.of());
+            Files.move(legacyPath, legacyPath.resolveSibling(legacyPath.getFileName() + ".migrated"),
+                    StandardCopyOption.REPLACE_EXISTING);
+            ShowcaseMod.LOGGER.info("Migrated global data for path {} from JSON to the embedded store", this.path);
+        } catch (Exception e) {
+            // The JSON file stays in place, so the migration is retried on the next load
+            ShowcaseMod.LOGGER.error("Failed to migrate global data for path {} to the embedded store", this.path, e);
+        }
+        return data;
+    }
+
+    /**
+     * Only a map that is the whole value can be split into keys; a map field is stored with the
+     * rest of its value.
+     */
+    private boolean isPerEntry() {
+        return streaming != null && streaming.field() == null;
+    }
+
+    private String entryPrefix() {
+        return path + ENTRY_SEPARATOR;
+    }
+}
@@ -0,0 +1,71 @@
+package com.showcase.data;
+
+import com.mojang.serialization.Codec;
+import com.showcase.ShowcaseMod;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.WorldSavePath;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Keeps every storage in one {@link EmbeddedStore} file per world, {@code showcase.db}.
+ * <p>
+ * Storages whose data is a map are stored one key per entry, so a save only appends the entries
+ * that changed and loading a single entry does not require reading the others.
+ */
+public final class EmbeddedStorageBackend implements StorageBackend {
+    private static final String STORE_FILE = "showcase.db";
+
+    private EmbeddedStore store;
+    private Path storePath;
+
+    EmbeddedStorageBackend() {}
+
+    @Override
+    public @NotNull String name() {
+        return "embedded";
+    }
+
+    @Override
+    public <T> @NotNull DataStorage<T> create(@NotNull String path, @NotNull Codec<T> codec,
+                                              @Nullable StreamingMap<T, ?> streaming) {
+        return new EmbeddedDataStorage<>(this, path, codec, streaming);
+    }
+
+    /**
+     * Returns the store of the given server's world, opening it on first use.
+     *
+     * @param server the server whose world directory holds the store
+     * @return the open store
+     * @throws IOException if the store file cannot be opened
+     */
+    synchronized EmbeddedStore store(@NotNull MinecraftServer server) throws IOException {
+        Path path = server.getSavePath(WorldSavePath.ROOT).resolve(DataStorage.DIR).resolve(STORE_FILE);
+        if (store == null || !path.equals(storePath)) {
+            closeStore();
+            store = EmbeddedStore.open(path);
+            storePath = path;
+            ShowcaseMod.LOGGER.info("Opened showcase data store {} with {} keys", path, store.keyCount());
+        }
+        return store;
+    }
+
+    @Override
+    public synchronized void close() {
+        closeStore();
+    }
+
+    private void closeStore() {
+        if (store == null) return;
+        try {
+            store.close();
+        } catch (IOException e) {
+            ShowcaseMod.LOGGER.error("Failed to close showcase data store {}", storePath, e);
+        }
+        store = null;
+        storePath = null;
+    }
+}
@@ -0,0 +1,545 @@
+package com.showcase.data;
+
+import com.showcase.ShowcaseMod;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * A single-file, append-only key-value store.
+ * <p>
+ * Every change is appended as a batch of put and delete records followed by a commit record. Each
+ * record starts with a header holding its type and lengths under their own CRC32, followed by the
+ * key, the value and a CRC32 of the record content. An in-memory index maps each key to the
+ * position of its latest value, so reads are a single positional read and writes never touch
+ * existing data.
+ * <p>
+ * On open the log is replayed; a batch without its commit record, left behind by a crash
+ * mid-write, is cut off, so every batch is applied either completely or not at all. A batch holding
+ * a record with a bad checksum is dropped as a whole for the same reason, and its records are set
+ * aside with {@link DataQuarantine}. Only a log that ends partway through a record is taken for a
+ * torn write. A damaged record header means the records after it can no longer be located, so
+ * everything from the last commit on is copied to a {@code .corrupt} backup next to the store
+ * before it is cut off.
+ * <p>
+ * Once more than half of the file is superseded records, the live records are rewritten into a
+ * fresh file.
+ * <p>
+ * A scratch store, see {@link #openScratch}, skips the fsync after each batch; it holds data that
+ * is also kept elsewhere and does not need to survive a crash.
+ */
+final class EmbeddedStore implements Closeable {
+    private static final int MAGIC = 0x53484B56;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+    // Type, key length, value length and the header checksum
+    private static final int RECORD_HEADER_SIZE = 1 + 4 + 4 + 4;
+    private static final int MAX_KEY_LENGTH = 0xFFFF;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte COMMIT = 3;
+
+    private static final long COMPACTION_MIN_BYTES = 1 << 20;
+
+    /**
+     * Location of a live value.
+     *
+     * @param offset file position of the value bytes
+     * @param length value length
+     * @param checksum CRC32 of the value bytes
+     */
+    private record Slot(long offset, int length, int checksum) {
+        long recordSize(String key) {
+            return EmbeddedStore.recordSize(key, length);
+        }
+    }
+
+    /**
+     * A record read back during recovery, kept until its batch is committed or dropped.
+     *
+     * @param type the record type, meaningless if damaged
+     * @param key the record key, possibly garbled if damaged
+     * @param valueOffset file position of the value bytes
+     * @param valueLength value length
+     * @param damaged true if the record checksum did not match
+     */
+    private record RecoveredRecord(byte type, String key, long valueOffset, int valueLength, boolean damaged) {}
+
+    private final Path file;
+    private final boolean durable;
+    private final NavigableMap<String, Slot> index = new TreeMap<>();
+    private FileChannel channel;
+    private long size;
+    private long liveBytes;
+
+    private EmbeddedStore(Path file, boolean durable) {
+        this.file = file;
+        this.durable = durable;
+    }
+
+    /**
+     * Opens the store, creating the file if needed, and recovers its index from the log.
+     *
+     * @param file the store file
+     * @return the open store
+     * @throws IOException if the file cannot be opened or is not a store file
+     */
+    static EmbeddedStore open(@NotNull Path file) throws IOException {
+        return open(file, true);
+    }
+
+    /**
+     * Opens an empty store whose writes are not forced to disk, discarding any previous content.
+     *
+     * @param file the store file
+     * @return the open store
+     * @throws IOException if the file cannot be opened
+     */
+    static EmbeddedStore openScratch(@NotNull Path file) throws IOException {
+        Files.deleteIfExists(file);
+        return open(file, false);
+    }
+
+    private static EmbeddedStore open(Path file, boolean durable) throws IOException {
+        EmbeddedStore store = new EmbeddedStore(file, durable);
+        Files.createDirectories(file.getParent());
+        store.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            store.recover();
+        } catch (IOException e) {
+            store.channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private void recover() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize == 0) {
+            writeHeader(channel);
+            channel.force(true);
+            size = HEADER_SIZE;
+            return;
+        }
+
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        if (fileSize < HEADER_SIZE || in.readInt() != MAGIC) {
+            throw new IOException("Not a showcase data store: " + file);
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported showcase data store version " + version + ": " + file);
+        }
+
+        long position = HEADER_SIZE;
+        long committed = HEADER_SIZE;
+        int corruptRecords = 0;
+        int droppedBatches = 0;
+        boolean batchDamaged = false;
+        boolean framingDamaged = false;
+        Map<String, Slot> batchPuts = new LinkedHashMap<>();
+        List<String> batchDeletes = new ArrayList<>();
+        List<RecoveredRecord> batchRecords = new ArrayList<>();
+
+        try {
+            while (position < fileSize) {
+                // A header cut short can only be the end of a torn write
+                if (fileSize - position < RECORD_HEADER_SIZE) break;
+                byte type = in.readByte();
+                int keyLength = in.readInt();
+                int valueLength = in.readInt();
+                int headerChecksum = in.readInt();
+                if (headerChecksum != headerChecksumOf(type, keyLength, valueLength)
+                        || keyLength < 0 || keyLength > MAX_KEY_LENGTH || valueLength < 0) {
+                    framingDamaged = true;
+                    break;
+                }
+
+                long next = position + recordSize(keyLength, valueLength);
+                if (next > fileSize) break;
+                byte[] key = in.readNBytes(keyLength);
+                byte[] value = in.readNBytes(valueLength);
+                int checksum = in.readInt();
+
+                CRC32 crc = new CRC32();
+                crc.update(type);
+                crc.update(key);
+                crc.update(value);
+
+                long valueOffset = position + RECORD_HEADER_SIZE + keyLength;
+                String keyString = new String(key, StandardCharsets.UTF_8);
+                if ((int) crc.getValue() != checksum) {
+                    // A damaged last record is a torn write; a damaged record followed by more data
+                    // drops the rest of its batch, since the batch can no longer be applied completely
+                    if (next >= fileSize) break;
+                    corruptRecords++;
+                    batchDamaged = true;
+                    batchRecords.add(new RecoveredRecord(type, keyString, valueOffset, valueLength, true));
+                    position = next;
+                    continue;
+                }
+                if (type != PUT && type != DELETE && type != COMMIT) {
+                    framingDamaged = true;
+                    break;
+                }
+                position = next;
+
+                if (type != COMMIT) batchRecords.add(new RecoveredRecord(type, keyString, valueOffset, valueLength, false));
+                switch (type) {
+                    case PUT -> batchPuts.put(keyString, new Slot(valueOffset, valueLength, checksumOf(value)));
+                    case DELETE -> {
+                        batchPuts.remove(keyString);
+                        batchDeletes.add(keyString);
+                    }
+                    case COMMIT -> {
+                        if (batchDamaged) {
+                            droppedBatches++;
+                            quarantineBatch(batchRecords);
+                        } else {
+                            batchDeletes.forEach(this::removeFromIndex);
+                            batchPuts.forEach(this::putInIndex);
+                        }
+                        batchPuts.clear();
+                        batchDeletes.clear();
+                        batchRecords.clear();
+                        batchDamaged = false;
+                        committed = position;
+                    }
+                }
+            }
+        } catch (EOFException e) {
+            // Torn tail, handled below like any other uncommitted batch
+        }
+
+        if (batchDamaged) {
+            // An unfinished batch is cut off below, but one with damage in it is not just a torn write
+            droppedBatches++;
+            quarantineBatch(batchRecords);
+        }
+        if (corruptRecords > 0) {
+            ShowcaseMod.LOGGER.warn("Found {} records with bad checksums in {}, quarantined {} damaged batches to {}",
+                    corruptRecords, file, droppedBatches, DataQuarantine.getQuarantinePath(file).getFileName());
+        }
+        if (framingDamaged) {
+            // Later batches may still be intact, keep them for inspection instead of losing them
+            Path backup = backUpTail(committed, fileSize);
+            ShowcaseMod.LOGGER.error("Found a damaged record header at offset {} in {}, copied the {} bytes after the last intact batch to {}",
+                    position, file, fileSize - committed, backup.getFileName());
+        }
+        if (committed < fileSize) {
+            ShowcaseMod.LOGGER.warn("Discarding {} bytes of uncommitted data at the end of {}", fileSize - committed, file);
+            channel.truncate(committed);
+            channel.force(true);
+        }
+        size = committed;
+    }
+
+    private Path backUpTail(long from, long to) throws IOException {
+        Path backup = file.resolveSibling(file.getFileName() + "." + System.currentTimeMillis() + ".corrupt");
+        try (FileChannel out = FileChannel.open(backup, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = from;
+            while (position < to) {
+                position += channel.transferTo(position, to - position, out);
+            }
+            out.force(true);
+        }
+        return backup;
+    }
+
+    private void quarantineBatch(List<RecoveredRecord> records) throws IOException {
+        for (RecoveredRecord record : records) {
+            String reason;
+            if (record.damaged()) reason = "Checksum mismatch";
+            else if (record.type() == DELETE) reason = "Delete in a damaged batch";
+            else reason = "Put in a damaged batch";
+
+            byte[] value = readUnchecked(new Slot(record.valueOffset(), record.valueLength(), 0));
+            DataQuarantine.quarantine(file, record.key(), reason, Base64.getEncoder().encodeToString(value));
+        }
+    }
+
+    /**
+     * @param key the key
+     * @return the value, or null if the key is absent
+     */
+    synchronized byte @Nullable [] get(@NotNull String key) throws IOException {
+        Slot slot = index.get(key);
+        return slot != null ? read(slot) : null;
+    }
+
+    /**
+     * Reads every key that starts with the given prefix, in key order. Values whose checksum no
+     * longer matches are left out of the result and collected separately.
+     *
+     * @param prefix the key prefix
+     * @param corrupted receives the keys and raw bytes of damaged values
+     * @return the matching keys and their intact values
+     */
+    synchronized Map<String, byte[]> getAll(@NotNull String prefix, @NotNull Map<String, byte[]> corrupted) throws IOException {
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Slot> entry : range(prefix).entrySet()) {
+            byte[] value = readUnchecked(entry.getValue());
+            if (checksumOf(value) == entry.getValue().checksum()) {
+                result.put(entry.getKey(), value);
+            } else {
+                corrupted.put(entry.getKey(), value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param prefix the key prefix
+     * @return true if any key starts with the prefix
+     */
+    synchronized boolean containsPrefix(@NotNull String prefix) {
+        return !range(prefix).isEmpty();
+    }
+
+    /**
+     * @param key the key
+     * @return true if the key is present
+     */
+    synchronized boolean contains(@NotNull String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Atomically applies puts and deletes as one batch.
+     *
+     * @param puts keys to write
+     * @param deletes keys to remove
+     */
+    synchronized void commit(@NotNull Map<String, byte[]> puts, @NotNull Collection<String> deletes) throws IOException {
+        List<String> removed = new ArrayList<>();
+        for (String key : deletes) {
+            if (index.containsKey(key) && !puts.containsKey(key)) removed.add(key);
+        }
+        if (puts.isEmpty() && removed.isEmpty()) return;
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        Map<String, Slot> written = new LinkedHashMap<>();
+
+        for (Map.Entry<String, byte[]> put : puts.entrySet()) {
+            byte[] key = put.getKey().getBytes(StandardCharsets.UTF_8);
+            long valueOffset = size + buffer.size() + RECORD_HEADER_SIZE + key.length;
+            writeRecord(out, PUT, key, put.getValue());
+            written.put(put.getKey(), new Slot(valueOffset, put.getValue().length, checksumOf(put.getValue())));
+        }
+        for (String key : removed) {
+            writeRecord(out, DELETE, key.getBytes(StandardCharsets.UTF_8), new byte[0]);
+        }
+        writeRecord(out, COMMIT, new byte[0], new byte[0]);
+
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        long position = size;
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+        if (durable) channel.force(false);
+        size = position;
+
+        removed.forEach(this::removeFromIndex);
+        written.forEach(this::putInIndex);
+
+        compactIfNeeded();
+    }
+
+    /**
+     * Makes the keys under a prefix match the given entries, writing only values whose content
+     * changed and deleting keys that are no longer present, as one batch.
+     *
+     * @param prefix the key prefix
+     * @param entries the complete new content under the prefix, keyed by full key
+     * @return the number of keys written or deleted
+     */
+    synchronized int replaceAll(@NotNull String prefix, @NotNull Map<String, byte[]> entries) throws IOException {
+        Map<String, byte[]> puts = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            Slot slot = index.get(entry.getKey());
+            if (slot == null || slot.length() != entry.getValue().length || slot.checksum() != checksumOf(entry.getValue())) {
+                puts.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        Set<String> deletes = new HashSet<>(range(prefix).keySet());
+        deletes.removeAll(entries.keySet());
+
+        commit(puts, deletes);
+        return puts.size() + deletes.size();
+    }
+
+    /**
+     * @return the number of live keys
+     */
+    synchronized int keyCount() {
+        return index.size();
+    }
+
+    /**
+     * @return the current file size in bytes
+     */
+    synchronized long fileSize() {
+        return size;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        long garbage = size - HEADER_SIZE - liveBytes;
+        if (size < COMPACTION_MIN_BYTES || garbage < liveBytes) return;
+
+        long start = System.nanoTime();
+        long before = size;
+        Path tempPath = file.resolveSibling(file.getFileName() + ".compact");
+        NavigableMap<String, Slot> compacted = new TreeMap<>();
+
+        try (FileChannel out = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(out);
+            long position = HEADER_SIZE;
+            for (Map.Entry<String, Slot> entry : index.entrySet()) {
+                byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                ByteArrayOutputStream record = new ByteArrayOutputStream();
+                writeRecord(new DataOutputStream(record), PUT, key, read(entry.getValue()));
+
+                compacted.put(entry.getKey(), new Slot(position + RECORD_HEADER_SIZE + key.length,
+                        entry.getValue().length(), entry.getValue().checksum()));
+                position += writeFully(out, record.toByteArray(), position);
+            }
+
+            ByteArrayOutputStream commit = new ByteArrayOutputStream();
+            writeRecord(new DataOutputStream(commit), COMMIT, new byte[0], new byte[0]);
+            position += writeFully(out, commit.toByteArray(), position);
+            out.force(true);
+            size = position;
+        }
+
+        channel.close();
+        Files.move(tempPath, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        index.clear();
+        index.putAll(compacted);
+
+        ShowcaseMod.LOGGER.debug("Compacted {} from {} to {} bytes in {}ms", file.getFileName(), before, size,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private NavigableMap<String, Slot> range(String prefix) {
+        return index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void putInIndex(String key, Slot slot) {
+        Slot previous = index.put(key, slot);
+        if (previous != null) liveBytes -= previous.recordSize(key);
+        liveBytes += slot.recordSize(key);
+    }
+
+    private void removeFromIndex(String key) {
+        Slot previous = index.remove(key);
+        if (previous != null) liveBytes -= previous.recordSize(key);
+    }
+
+    private byte[] read(Slot slot) throws IOException {
+        byte[] value = readUnchecked(slot);
+        if (checksumOf(value) != slot.checksum()) {
+            throw new IOException("Checksum mismatch in " + file + " at offset " + slot.offset());
+        }
+        return value;
+    }
+
+    private byte[] readUnchecked(Slot slot) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(slot.length());
+        long position = slot.offset();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new EOFException("Value extends past the end of " + file);
+            position += read;
+        }
+        return buffer.array();
+    }
+
+    private static void writeHeader(FileChannel out) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+        writeFully(out, header.array(), 0);
+    }
+
+    private static int writeFully(FileChannel out, byte[] bytes, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            position += out.write(buffer, position);
+        }
+        return bytes.length;
+    }
+
+    private static void writeRecord(DataOutputStream out, byte type, byte[] key, byte[] value) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(key);
+        crc.update(value);
+
+        out.writeByte(type);
+        out.writeInt(key.length);
+        out.writeInt(value.length);
+        out.writeInt(headerChecksumOf(type, key.length, value.length));
+        out.write(key);
+        out.write(value);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static long recordSize(String key, int valueLength) {
+        return recordSize(key.getBytes(StandardCharsets.UTF_8).length, valueLength);
+    }
+
+    private static long recordSize(int keyLength, int valueLength) {
+        return RECORD_HEADER_SIZE + keyLength + (long) valueLength + 4;
+    }
+
+    private static int headerChecksumOf(byte type, int keyLength, int valueLength) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(9).put(type).putInt(keyLength).putInt(valueLength).array());
+        return (int) crc.getValue();
+    }
+
+    private static int checksumOf(byte[] value) {
+        CRC32 crc = new CRC32();
+        crc.update(value);
+        return (int) crc.getValue();
+    }
+}
@@ -1,21 +1,35 @@
 package com.showcase.data;
 
 import com.showcase.ShowcaseMod;
+import com.showcase.config.ModConfigManager;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.Identifier;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.Map;
 import java.util.Objects;
 
+/**
+ * Caches registered storages in memory and writes them back when they change.
+ * <p>
+ * Every storage id carries a version that advances on each change. A storage is only written when
+ * its version is ahead of the version of its last successful save, so {@link #saveAll} skips data
+ * that has not changed since it was last persisted. A save only counts once its write has finished
+ * on the I/O executor, so a write that fails there is retried by the next {@link #saveAll}.
+ */
 public final class GlobalDataManager {
-    private static final Map<Identifier, JsonCodecDataStorage<?>> STORAGES = new ConcurrentHashMap<>();
+    private static final Map<Identifier, DataStorage<?>> STORAGES = new ConcurrentHashMap<>();
     private static final Map<Identifier, Object> CACHE = new ConcurrentHashMap<>();
+    private static final Map<Identifier, AtomicLong> VERSIONS = new ConcurrentHashMap<>();
+    private static final Map<Identifier, Long> SAVED_VERSIONS = new ConcurrentHashMap<>();
+
+    private static int autosavesSinceFlush = 0;
 
     private GlobalDataManager() {}
 
-    public static <T> void register(Identifier id, JsonCodecDataStorage<T> storage) {
+    public static <T> void register(Identifier id, DataStorage<T> storage) {
         STORAGES.put(id, storage);
         ShowcaseMod.LOGGER.debug("Registered storage for id: {}", id);
     }
@@ -29,7 +43,7 @@ public final class GlobalDataManager {
             return cached;
         }
 
-        JsonCodecDataStorage<T> storage = (JsonCodecDataStorage<T>) STORAGES.get(id);
+        DataStorage<T> storage = (DataStorage<T>) STORAGES.get(id);
         if (storage == null) {
             ShowcaseMod.LOGGER.warn("No storage found for id: {}", id);
             return null;
@@ -50,43 +64,113 @@ public final class GlobalDataManager {
         return data;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Replaces the cached data and saves it right away.
+     *
+     * @param server the server whose world directory holds the data
+     * @param id the storage id
+     * @param data the new data, or null to delete it
+     */
     public static <T> void setData(MinecraftServer server, Identifier id, T data) {
-        JsonCodecDataStorage<T> storage = (JsonCodecDataStorage<T>) STORAGES.get(id);
-        if (storage == null) {
+        if (!STORAGES.containsKey(id)) {
             ShowcaseMod.LOGGER.warn("No storage registered for id: {}, cannot save data", id);
             return;
         }
 
+        putData(id, data);
+        flush(server, id);
+    }
+
+    /**
+     * Replaces the cached data and marks it dirty without saving it. It is written by the next
+     * {@link #saveAll}.
+     *
+     * @param id the storage id
+     * @param data the new data, or null to delete it
+     */
+    public static <T> void putData(Identifier id, T data) {
+        if (data != null) {
+            CACHE.put(id, data);
+        } else {
+            CACHE.remove(id);
+        }
+        markDirty(id);
+    }
+
+    /**
+     * Marks the cached data as changed, for callers that mutate it in place.
+     *
+     * @param id the storage id
+     */
+    public static void markDirty(Identifier id) {
+        VERSIONS.computeIfAbsent(id, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Checks whether the data has changed since it was last saved.
+     *
+     * @param id the storage id
+     * @return true if the data needs to be written
+     */
+    public static boolean isDirty(Identifier id) {
+        AtomicLong version = VERSIONS.get(id);
+        return version != null && version.get() > SAVED_VERSIONS.getOrDefault(id, 0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void flush(MinecraftServer server, Identifier id) {
+        DataStorage<T> storage = (DataStorage<T>) STORAGES.get(id);
+        AtomicLong version = VERSIONS.get(id);
+        if (storage == null || version == null) return;
+
+        // Read the version before the data so a concurrent change keeps the id dirty
+        long savingVersion = version.get();
+        T data = (T) CACHE.get(id);
+
         try {
-            boolean saved = storage.save(server, data);
-            if (saved) {
-                if (data != null) {
-                    CACHE.put(id, data);
-                    ShowcaseMod.LOGGER.debug("Saved and cached data for id: {}", id);
+            // Only a write that reached the disk counts, a failed one leaves the id dirty for a retry
+            storage.saveAsync(server, data).whenComplete((result, error) -> {
+                if (error == null) {
+                    SAVED_VERSIONS.merge(id, savingVersion, Math::max);
+                    ShowcaseMod.LOGGER.debug("Saved data for id: {} at version {}", id, savingVersion);
                 } else {
-                    CACHE.remove(id);
-                    ShowcaseMod.LOGGER.debug("Removed cached data for id: {}", id);
+                    ShowcaseMod.LOGGER.warn("Failed to save data for id: {}, retrying on the next save", id);
                 }
-            } else {
-                ShowcaseMod.LOGGER.warn("Failed to save data for id: {}", id);
-            }
+            });
         } catch (Exception e) {
             ShowcaseMod.LOGGER.error("Exception while saving data for id: {}", id, e);
         }
     }
 
+    /**
+     * Saves every storage whose data changed since its last successful save.
+     *
+     * @param server the server whose world directory holds the data
+     */
     public static void saveAll(MinecraftServer server) {
         Objects.requireNonNull(server, "Server must not be null");
-        ShowcaseMod.LOGGER.info("Saving all global cached data, total entries: {}", CACHE.size());
-        for (Map.Entry<Identifier, Object> entry : CACHE.entrySet()) {
-            try {
-                setData(server, entry.getKey(), entry.getValue());
-                ShowcaseMod.LOGGER.debug("Saved global data for id: {}", entry.getKey());
-            } catch (Exception e) {
-                ShowcaseMod.LOGGER.error("Failed to save global data for id: {}", entry.getKey(), e);
+        int saved = 0;
+        for (Identifier id : VERSIONS.keySet()) {
+            if (isDirty(id)) {
+                flush(server, id);
+                saved++;
             }
         }
-        ShowcaseMod.LOGGER.info("Completed saving all global data");
+        ShowcaseMod.LOGGER.debug("Saved {} changed global data entries", saved);
+    }
+
+    /**
+     * Called after each world save; flushes changed data every configured number of autosaves.
+     *
+     * @param server the server being saved
+     */
+    public static void onAutosave(MinecraftServer server) {
+        int interval = ModConfigManager.getAutosaveFlushInterval();
+        if (interval <= 0) return;
+
+        if (++autosavesSinceFlush >= interval) {
+            autosavesSinceFlush = 0;
+            saveAll(server);
+        }
     }
 }
@@ -0,0 +1,208 @@
+package com.showcase.data;
+
+import com.showcase.ShowcaseMod;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs blocking file I/O, such as encoding and writing saves or reading {@code usercache.json}, on
+ * virtual threads, one per task.
+ * <p>
+ * The housekeeping timer in {@link com.showcase.command.ShowcaseManager} only does short periodic
+ * work, so a slow disk never holds up expiry sweeps or cooldown cleanup queued behind a write.
+ * <p>
+ * Every task names the storage file it works on. Tasks on the same file run one at a time in
+ * submission order, each chained on the file's previous task, while tasks on different files run in
+ * parallel. Write coalescing in {@link DataWritePipeline} and the checkpoints of
+ * {@link ShareCheckpointer} rely on that order.
+ * <p>
+ * The executor runs between {@link #start()} and {@link #shutdown(long)}. Tasks submitted while it
+ * is stopped run right away on the calling thread, without waiting for a permit, so a task may
+ * submit follow-up work on its own file.
+ */
+public final class IoExecutor {
+    // File -> its most recently submitted task, which the next task on the file waits for
+    private static final Map<Path, CompletableFuture<?>> FILE_TAILS = new ConcurrentHashMap<>();
+    private static final Set<CompletableFuture<?>> UNFINISHED = ConcurrentHashMap.newKeySet();
+
+    private static volatile ExecutorService executor;
+
+    private static final AtomicInteger active = new AtomicInteger();
+    private static final AtomicInteger peakActive = new AtomicInteger();
+    private static final AtomicLong completed = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+
+    /**
+     * A blocking task that produces a result.
+     */
+    @FunctionalInterface
+    public interface IoCallable<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * Snapshot of the executor counters.
+     *
+     * @param queued tasks waiting for earlier tasks on their file
+     * @param active tasks working on their file
+     * @param peakActive most tasks active at once since startup
+     * @param completed tasks finished successfully
+     * @param failed tasks that threw
+     */
+    public record Metrics(int queued, int active, int peakActive, long completed, long failed) {}
+
+    private IoExecutor() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Starts running tasks on virtual threads.
+     */
+    public static synchronized void start() {
+        if (executor != null) return;
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Showcase-IO-", 0).factory());
+    }
+
+    /**
+     * Waits for submitted tasks to finish and stops the executor. Later tasks run on the caller.
+     *
+     * @param timeoutSeconds maximum time to wait
+     * @return true if every task finished in time
+     */
+    public static synchronized boolean shutdown(long timeoutSeconds) {
+        ExecutorService current = executor;
+        if (current == null) return true;
+
+        boolean idle = awaitIdle(timeoutSeconds);
+        if (!idle) ShowcaseMod.LOGGER.warn("Stopping the I/O executor with {} unfinished tasks", UNFINISHED.size());
+        executor = null;
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(1, TimeUnit.SECONDS)) current.shutdownNow();
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        return idle;
+    }
+
+    /**
+     * Runs a task once every task submitted earlier on the same file has finished.
+     *
+     * @param file the storage file the task works on
+     * @param task the task
+     * @return completes when the task has run, exceptionally if it threw
+     */
+    public static CompletableFuture<Void> submit(@NotNull Path file, @NotNull DataWritePipeline.IoTask task) {
+        return supply(file, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a task that produces a result, see {@link #submit(Path, DataWritePipeline.IoTask)}.
+     *
+     * @param file the storage file the task works on
+     * @param task the task
+     * @return the result of the task
+     */
+    public static <T> CompletableFuture<T> supply(@NotNull Path file, @NotNull IoCallable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        ExecutorService current = executor;
+        if (current == null) {
+            run(file, task, future);
+            return future;
+        }
+
+        UNFINISHED.add(future);
+        future.whenComplete((result, error) -> {
+            UNFINISHED.remove(future);
+            FILE_TAILS.remove(file, future);
+        });
+
+        // Once the executor is shutting down, run where the previous task finished
+        Executor fallback = command -> {
+            try {
+                current.execute(command);
+            } catch (RejectedExecutionException e) {
+                command.run();
+            }
+        };
+        // Swapping the tail is atomic, so tasks on a file start in the order they were submitted
+        CompletableFuture<?> previous = FILE_TAILS.put(file, future);
+        CompletableFuture<?> after = previous != null ? previous : CompletableFuture.completedFuture(null);
+        after.whenCompleteAsync((result, error) -> run(file, task, future), fallback);
+        return future;
+    }
+
+    private static <T> void run(Path file, IoCallable<T> task, CompletableFuture<T> future) {
+        peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        try {
+            T result = task.call();
+            completed.incrementAndGet();
+            future.complete(result);
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            ShowcaseMod.LOGGER.error("I/O task on {} failed", file, e);
+            future.completeExceptionally(e);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    /**
+     * Blocks until every task submitted before or during this call has finished.
+     *
+     * @param timeoutSeconds maximum time to wait
+     * @return true if the executor became idle in time
+     */
+    public static boolean awaitIdle(long timeoutSeconds) {
+        return awaitAll(UNFINISHED, timeoutSeconds);
+    }
+
+    /**
+     * Blocks until a set of tasks that removes finished tasks from itself is empty.
+     *
+     * @param tasks the unfinished tasks
+     * @param timeoutSeconds maximum time to wait
+     * @return true if the set became empty in time
+     */
+    static boolean awaitAll(@NotNull Set<? extends CompletableFuture<?>> tasks, long timeoutSeconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (!tasks.isEmpty()) {
+            try {
+                CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                        .exceptionally(error -> null)
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NotNull
+    public static Metrics getMetrics() {
+        int running = active.get();
+        return new Metrics(Math.max(0, UNFINISHED.size() - running), running, peakActive.get(),
+                completed.get(), failed.get());
+    }
+}
@@ -1,60 +1,96 @@
 package com.showcase.data;
 
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
 import com.mojang.serialization.JsonOps;
 import com.showcase.ShowcaseMod;
 import net.minecraft.server.MinecraftServer;
-import net.minecraft.util.WorldSavePath;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores data as a JSON file.
+ * <p>
+ * With a {@link StreamingMap}, each map entry that is a JSON object carries a {@code _crc} field
+ * holding the CRC32 of the rest of the entry. Entries that fail the checksum or do not decode are
+ * moved to the quarantine file and every other entry is still loaded.
+ */
+public record JsonCodecDataStorage<T>(String path, Codec<T> codec, @Nullable StreamingMap<T, ?> streaming)
+        implements DataStorage<T> {
+    private final static String EXTENSION = ".json";
+    private final static String CHECKSUM_KEY = "_crc";
+
+    public JsonCodecDataStorage(String path, Codec<T> codec) {
+        this(path, codec, null);
+    }
 
-public record JsonCodecDataStorage<T>(String path, Codec<T> codec) {
-    private final static String DIR = "global-mod-data";
-
-    public boolean save(MinecraftServer server, T data) {
-        Path globalPath = server.getSavePath(WorldSavePath.ROOT).resolve(DIR);
-        Path filePath = globalPath.resolve(this.path + ".json");
+    @Override
+    public String extension() {
+        return EXTENSION;
+    }
 
-        if (data == null) {
-            try {
-                return Files.deleteIfExists(filePath);
-            } catch (IOException e) {
-                ShowcaseMod.LOGGER.error("Failed to delete global data file at {}\n{}", filePath, e.fillInStackTrace());
-                return false;
-            }
+    public JsonElement encode(MinecraftServer server, T data) {
+        JsonElement encoded = codec.encodeStart(server.getRegistryManager().getOps(JsonOps.INSTANCE), data)
+                .getOrThrow();
+        if (streaming != null) {
+            addChecksums(encoded);
         }
+        return encoded;
+    }
 
-        try {
-            if (!Files.exists(globalPath)) {
-                Files.createDirectories(globalPath);
+    private void addChecksums(JsonElement encoded) {
+        JsonElement map = streaming.field() == null ? encoded
+                : encoded.isJsonObject() ? encoded.getAsJsonObject().get(streaming.field()) : null;
+        if (map == null || !map.isJsonObject()) return;
+
+        for (Map.Entry<String, JsonElement> entry : map.getAsJsonObject().entrySet()) {
+            if (entry.getValue().isJsonObject()) {
+                JsonObject record = entry.getValue().getAsJsonObject();
+                record.addProperty(CHECKSUM_KEY, DataQuarantine.checksum(record.toString()));
             }
+        }
+    }
 
-            var encoded = codec.encodeStart(server.getRegistryManager().getOps(JsonOps.INSTANCE), data)
-                    .getOrThrow();
+    @Override
+    public byte[] serialize(MinecraftServer server, T data) {
+        return encode(server, data).toString().getBytes(StandardCharsets.UTF_8);
+    }
 
-            Files.writeString(filePath, encoded.toString(), StandardCharsets.UTF_8);
-            return true;
-        } catch (IOException e) {
-            ShowcaseMod.LOGGER.error("IOException while saving global data for path {}\n{}", this.path, e.fillInStackTrace());
-            return false;
-        } catch (Exception e) {
-            ShowcaseMod.LOGGER.error("Unexpected error while saving global data for path {}\n{}", this.path, e.fillInStackTrace());
-            return false;
-        }
+    @Override
+    public T deserialize(MinecraftServer server, byte[] content) {
+        JsonElement element = JsonParser.parseString(new String(content, StandardCharsets.UTF_8));
+        return codec.parse(server.getRegistryManager().getOps(JsonOps.INSTANCE), element).getOrThrow();
     }
 
+    @Override
     public T load(MinecraftServer server) {
-        Path filePath = server.getSavePath(WorldSavePath.ROOT).resolve(DIR).resolve(this.path + ".json");
+        Path filePath = getFilePath(server);
+        if (DataWritePipeline.isPending(filePath)) {
+            // Read back what was last saved rather than the file it is about to replace
+            DataWritePipeline.flush(30);
+        }
+        DataWritePipeline.discardStaleTemp(filePath);
+
         if (!Files.exists(filePath)) {
             return null;
         }
 
+        if (streaming != null) {
+            return loadStreaming(server, filePath, streaming);
+        }
+
         try {
             String jsonString = Files.readString(filePath, StandardCharsets.UTF_8);
             JsonElement element = JsonParser.parseString(jsonString);
@@ -70,7 +106,7 @@ public record JsonCodecDataStorage<T>(String path, Codec<T> codec) {
                 }
 
                 // Create backup of corrupted file
-                createCorruptedBackup(filePath, jsonString);
+                createCorruptedBackup(filePath);
 
                 return null;
             }
@@ -85,15 +121,107 @@ public record JsonCodecDataStorage<T>(String path, Codec<T> codec) {
         }
     }
 
-    private void createCorruptedBackup(Path originalPath, String jsonContent) {
+    /**
+     * Decodes the storage's map one entry at a time, so only a single entry's JSON tree is held in
+     * memory. Entries that fail to decode are skipped; only a structurally broken file is discarded.
+     */
+    private <V> T loadStreaming(MinecraftServer server, Path filePath, StreamingMap<T, V> streaming) {
+        DynamicOps<JsonElement> ops = server.getRegistryManager().getOps(JsonOps.INSTANCE);
+        Map<String, V> entries = new HashMap<>();
+        JsonObject remainder = new JsonObject();
+        int[] quarantined = {0};
+
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(filePath, StandardCharsets.UTF_8))) {
+            if (streaming.field() == null) {
+                readEntries(reader, ops, filePath, streaming.valueCodec(), entries, quarantined);
+            } else {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (name.equals(streaming.field())) {
+                        readEntries(reader, ops, filePath, streaming.valueCodec(), entries, quarantined);
+                        remainder.add(name, new JsonObject());
+                    } else {
+                        remainder.add(name, JsonParser.parseReader(reader));
+                    }
+                }
+                reader.endObject();
+            }
+        } catch (Exception e) {
+            // Keep the entries read before the damage; the file is set aside and rewritten by the next save
+            ShowcaseMod.LOGGER.error("Malformed global data file for path {}, salvaged {} entries before the error",
+                    this.path, entries.size(), e);
+            createCorruptedBackup(filePath);
+            if (streaming.field() != null && !remainder.has(streaming.field())) {
+                remainder.add(streaming.field(), new JsonObject());
+            }
+        }
+
+        DataQuarantine.report(this.path, new DataQuarantine.LoadReport(entries.size(), quarantined[0]));
+
+        var decoded = codec.parse(ops, remainder);
+        if (decoded.result().isEmpty()) {
+            ShowcaseMod.LOGGER.error("Decoding failed for global data at path {}: {}", this.path,
+                    decoded.error().map(DataResult.Error::message).orElse("unknown error"));
+            createCorruptedBackup(filePath);
+            return null;
+        }
+
+        return streaming.merge().apply(decoded.result().get(), entries);
+    }
+
+    private <V> void readEntries(JsonReader reader, DynamicOps<JsonElement> ops, Path filePath, Codec<V> valueCodec,
+                                 Map<String, V> entries, int[] quarantined) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            JsonElement element = JsonParser.parseReader(reader);
+            String raw = element.toString();
+
+            String error = verifyChecksum(element);
+            if (error == null) {
+                var decoded = valueCodec.parse(ops, element);
+                if (decoded.result().isPresent()) {
+                    entries.put(key, decoded.result().get());
+                    continue;
+                }
+                error = decoded.error().map(DataResult.Error::message).orElse("unknown error");
+            }
+
+            quarantined[0]++;
+            ShowcaseMod.LOGGER.warn("Quarantining entry '{}' in global data for path {}: {}", key, this.path, error);
+            DataQuarantine.quarantine(filePath, key, error, raw);
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Checks and strips the checksum of an entry. Entries written before checksums were added
+     * have none and are accepted as is.
+     *
+     * @return null if the entry is intact, otherwise the reason it is not
+     */
+    @Nullable
+    private static String verifyChecksum(JsonElement element) {
+        if (!element.isJsonObject()) return null;
+
+        JsonElement stored = element.getAsJsonObject().remove(CHECKSUM_KEY);
+        if (stored == null) return null;
+
         try {
-            Path backupPath = originalPath.getParent().resolve(originalPath.getFileName().toString() + ".corrupted." + System.currentTimeMillis());
-            Files.writeString(backupPath, jsonContent, StandardCharsets.UTF_8);
-            ShowcaseMod.LOGGER.info("Created backup of corrupted file at: {}", backupPath);
+            long actual = DataQuarantine.checksum(element.toString());
+            return stored.getAsLong() == actual ? null : "Checksum mismatch";
+        } catch (RuntimeException e) {
+            return "Invalid checksum: " + stored;
+        }
+    }
 
-            // Delete the original corrupted file to prevent future loading issues
-            Files.deleteIfExists(originalPath);
-            ShowcaseMod.LOGGER.info("Deleted corrupted file: {}", originalPath);
+    private void createCorruptedBackup(Path originalPath) {
+        if (!Files.exists(originalPath)) return;
+        try {
+            Path backupPath = originalPath.getParent().resolve(originalPath.getFileName().toString() + ".corrupted." + System.currentTimeMillis());
+            Files.move(originalPath, backupPath);
+            ShowcaseMod.LOGGER.info("Moved corrupted file to: {}", backupPath);
         } catch (IOException e) {
             ShowcaseMod.LOGGER.error("Failed to create backup of corrupted file", e);
         }
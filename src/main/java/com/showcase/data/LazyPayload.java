@@ -0,0 +1,170 @@
+package com.showcase.data;
+
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.Dynamic;
+import com.mojang.serialization.DynamicOps;
+import com.showcase.ShowcaseMod;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtOps;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A share payload that is decoded on first access.
+ * <p>
+ * When read from storage only the serialized tree is kept, together with the registry-aware ops it
+ * was read with. The value codec runs the first time {@link #get()} is called. A payload that was
+ * never decoded is written back from its serialized form without a decode/encode round trip.
+ * <p>
+ * A payload can also be spilled to {@link ShareTierStore}, after which only its key is held and the
+ * next {@link #get()} reads it back.
+ *
+ * @param <T> the payload type
+ */
+public final class LazyPayload<T> {
+    private final Codec<T> codec;
+    private T value;
+    private Dynamic<?> encoded;
+    private String spilledKey;
+    private boolean failed;
+
+    private LazyPayload(Codec<T> codec, @Nullable T value, @Nullable Dynamic<?> encoded) {
+        this.codec = codec;
+        this.value = value;
+        this.encoded = encoded;
+    }
+
+    /**
+     * Wraps an already decoded value.
+     *
+     * @param codec the value codec
+     * @param value the value, or null
+     * @return the payload, or null if the value is null
+     */
+    @Nullable
+    public static <T> LazyPayload<T> of(@NotNull Codec<T> codec, @Nullable T value) {
+        return value == null ? null : new LazyPayload<>(codec, value, null);
+    }
+
+    /**
+     * Creates a codec that defers decoding of the given value codec.
+     *
+     * @param codec the value codec
+     * @return a codec producing undecoded payloads
+     */
+    public static <T> Codec<LazyPayload<T>> codec(@NotNull Codec<T> codec) {
+        return new Codec<>() {
+            @Override
+            public <O> DataResult<Pair<LazyPayload<T>, O>> decode(DynamicOps<O> ops, O input) {
+                return DataResult.success(Pair.of(new LazyPayload<>(codec, null, new Dynamic<>(ops, input)), ops.empty()));
+            }
+
+            @Override
+            public <O> DataResult<O> encode(LazyPayload<T> input, DynamicOps<O> ops, O prefix) {
+                synchronized (input) {
+                    if (input.spilledKey != null) {
+                        // Written straight from the spill file, without pulling it back into memory
+                        Dynamic<NbtElement> spilled = ShareTierStore.read(input.spilledKey);
+                        return spilled != null
+                                ? DataResult.success(spilled.convert(ops).getValue())
+                                : DataResult.error(() -> "Spilled share payload " + input.spilledKey + " is missing");
+                    }
+                    if (input.encoded != null) {
+                        return DataResult.success(input.encoded.convert(ops).getValue());
+                    }
+                    return codec.encode(input.value, ops, prefix);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the payload, decoding it on first call.
+     *
+     * @return the decoded value, or null if it could not be decoded
+     */
+    @Nullable
+    public synchronized T get() {
+        if (spilledKey != null) {
+            faultIn();
+        }
+        if (encoded != null && !failed) {
+            decode(encoded);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the payload only if it is in memory, decoding it if needed but never reading the spill
+     * file.
+     *
+     * @return the decoded value, or null if it is spilled or could not be decoded
+     */
+    @Nullable
+    synchronized T getIfLoaded() {
+        return spilledKey == null ? get() : null;
+    }
+
+    private <O> void decode(Dynamic<O> dynamic) {
+        DataResult<T> result = codec.parse(dynamic);
+        if (result.result().isPresent()) {
+            value = result.result().get();
+            encoded = null;
+        } else {
+            // Keep the serialized form so the share is still written back unchanged
+            failed = true;
+            ShowcaseMod.LOGGER.error("Failed to decode share payload: {}",
+                    result.error().map(DataResult.Error::message).orElse("unknown error"));
+        }
+    }
+
+    /**
+     * Writes the payload to the spill file and drops it from memory.
+     *
+     * @param key the spill key, the share ID
+     * @return true if the payload was spilled
+     */
+    synchronized boolean spill(@NotNull String key) {
+        if (spilledKey != null || failed) return false;
+
+        NbtElement tree = encoded != null
+                ? encoded.convert(NbtOps.INSTANCE).getValue()
+                : value != null ? ShareTierStore.encode(codec, value) : null;
+        if (tree == null || !ShareTierStore.write(key, tree)) return false;
+
+        value = null;
+        encoded = null;
+        spilledKey = key;
+        return true;
+    }
+
+    private void faultIn() {
+        String key = spilledKey;
+        Dynamic<NbtElement> restored = ShareTierStore.read(key);
+        spilledKey = null;
+        if (restored == null) {
+            failed = true;
+            ShowcaseMod.LOGGER.error("Spilled share payload {} could not be read back", key);
+            return;
+        }
+
+        encoded = restored;
+        ShareTierStore.faultedIn(key);
+    }
+
+    /**
+     * @return true if the payload is only held in the spill file
+     */
+    synchronized boolean isSpilled() {
+        return spilledKey != null;
+    }
+
+    /**
+     * @return true if the value has been decoded, false if only the serialized or spilled form is held
+     */
+    public synchronized boolean isDecoded() {
+        return encoded == null && spilledKey == null;
+    }
+}
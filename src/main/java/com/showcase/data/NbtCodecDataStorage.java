@@ -0,0 +1,179 @@
+package com.showcase.data;
+
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.MapLike;
+import com.showcase.ShowcaseMod;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.NbtSizeTracker;
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores data as gzip-compressed NBT using the same codecs as {@link JsonCodecDataStorage}.
+ * A JSON file of the same name is migrated on first load and kept as {@code .json.migrated}.
+ * <p>
+ * With a {@link StreamingMap}, map entries are decoded one at a time on load; entries that do not
+ * decode are moved to the quarantine file and every other entry is still loaded. The gzip trailer
+ * already checksums the file as a whole.
+ */
+public record NbtCodecDataStorage<T>(String path, Codec<T> codec, @Nullable StreamingMap<T, ?> streaming)
+        implements DataStorage<T> {
+    private final static String EXTENSION = ".dat";
+    private final static String DATA_KEY = "data";
+
+    public NbtCodecDataStorage(String path, Codec<T> codec) {
+        this(path, codec, null);
+    }
+
+    @Override
+    public String extension() {
+        return EXTENSION;
+    }
+
+    @Override
+    public byte[] serialize(MinecraftServer server, T data) throws IOException {
+        return encode(server, codec, data);
+    }
+
+    @Override
+    public T deserialize(MinecraftServer server, byte[] content) throws IOException {
+        return decode(server, codec, content);
+    }
+
+    /**
+     * Encodes a value as a gzip-compressed NBT compound holding it under the data key.
+     */
+    static <V> byte[] encode(MinecraftServer server, Codec<V> codec, V value) throws IOException {
+        NbtElement encoded = codec.encodeStart(server.getRegistryManager().getOps(NbtOps.INSTANCE), value)
+                .getOrThrow();
+
+        NbtCompound root = new NbtCompound();
+        root.put(DATA_KEY, encoded);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NbtIo.writeCompressed(root, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a value written by {@link #encode}.
+     */
+    static <V> V decode(MinecraftServer server, Codec<V> codec, byte[] content) throws IOException {
+        NbtCompound root = NbtIo.readCompressed(new ByteArrayInputStream(content), NbtSizeTracker.ofUnlimitedBytes());
+        NbtElement element = root.get(DATA_KEY);
+        if (element == null) {
+            throw new IOException("Missing '" + DATA_KEY + "' tag");
+        }
+
+        return codec.parse(server.getRegistryManager().getOps(NbtOps.INSTANCE), element).getOrThrow();
+    }
+
+    @Override
+    public T load(MinecraftServer server) {
+        Path filePath = getFilePath(server);
+        if (DataWritePipeline.isPending(filePath)) {
+            DataWritePipeline.flush(30);
+        }
+        DataWritePipeline.discardStaleTemp(filePath);
+
+        if (!Files.exists(filePath)) {
+            return migrateFromJson(server);
+        }
+
+        try {
+            byte[] content = Files.readAllBytes(filePath);
+            return streaming != null ? loadRecords(server, filePath, content, streaming) : deserialize(server, content);
+        } catch (Exception e) {
+            ShowcaseMod.LOGGER.error("Failed to load NBT global data for path {}", this.path, e);
+            createCorruptedBackup(filePath);
+            return null;
+        }
+    }
+
+    private <V> T loadRecords(MinecraftServer server, Path filePath, byte[] content, StreamingMap<T, V> streaming)
+            throws IOException {
+        NbtCompound root = NbtIo.readCompressed(new ByteArrayInputStream(content), NbtSizeTracker.ofUnlimitedBytes());
+        NbtElement data = root.get(DATA_KEY);
+        if (data == null) {
+            throw new IOException("Missing '" + DATA_KEY + "' tag");
+        }
+
+        DynamicOps<NbtElement> ops = server.getRegistryManager().getOps(NbtOps.INSTANCE);
+        NbtElement records = streaming.field() == null ? data : ops.get(data, streaming.field()).result().orElse(null);
+        Map<String, V> entries = new HashMap<>();
+        int quarantined = 0;
+
+        if (records != null) {
+            MapLike<NbtElement> map = ops.getMap(records).getOrThrow(IOException::new);
+            for (Pair<NbtElement, NbtElement> record : map.entries().toList()) {
+                String key = ops.getStringValue(record.getFirst()).result().orElse(String.valueOf(record.getFirst()));
+                var decoded = streaming.valueCodec().parse(ops, record.getSecond());
+                if (decoded.result().isPresent()) {
+                    entries.put(key, decoded.result().get());
+                    continue;
+                }
+
+                String error = decoded.error().map(DataResult.Error::message).orElse("unknown error");
+                quarantined++;
+                ShowcaseMod.LOGGER.warn("Quarantining entry '{}' in NBT global data for path {}: {}", key, this.path, error);
+                DataQuarantine.quarantine(filePath, key, error, String.valueOf(record.getSecond()));
+            }
+        }
+
+        DataQuarantine.report(this.path, new DataQuarantine.LoadReport(entries.size(), quarantined));
+
+        T remainder = streaming.field() == null ? null
+                : codec.parse(ops, ops.set(data, streaming.field(), ops.emptyMap())).getOrThrow(IOException::new);
+        return streaming.merge().apply(remainder, entries);
+    }
+
+    private T migrateFromJson(MinecraftServer server) {
+        JsonCodecDataStorage<T> legacy = new JsonCodecDataStorage<>(this.path, this.codec, this.streaming);
+        Path legacyPath = legacy.getFilePath(server);
+        if (!Files.exists(legacyPath)) {
+            return null;
+        }
+
+        T data = legacy.load(server);
+        if (data == null) {
+            return null;
+        }
+
+        try {
+            DataWritePipeline.writeAtomically(getFilePath(server), serialize(server, data));
+            Files.move(legacyPath, legacyPath.resolveSibling(legacyPath.getFileName() + ".migrated"),
+                    StandardCopyOption.REPLACE_EXISTING);
+            ShowcaseMod.LOGGER.info("Migrated global data for path {} from JSON to NBT", this.path);
+        } catch (Exception e) {
+            // The JSON file stays in place, so the migration is retried on the next load
+            ShowcaseMod.LOGGER.error("Failed to migrate global data for path {} to NBT", this.path, e);
+        }
+        return data;
+    }
+
+    private void createCorruptedBackup(Path originalPath) {
+        if (!Files.exists(originalPath)) return;
+        try {
+            Path backupPath = originalPath.resolveSibling(originalPath.getFileName() + ".corrupted." + System.currentTimeMillis());
+            Files.move(originalPath, backupPath);
+            ShowcaseMod.LOGGER.info("Moved corrupted file to: {}", backupPath);
+        } catch (IOException e) {
+            ShowcaseMod.LOGGER.error("Failed to create backup of corrupted file", e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.showcase.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps player UUIDs to share IDs, so per-player lookups do not scan every share. The repository
+ * keeps one index for owners and one for receivers.
+ * <p>
+ * Players with no shares left are dropped from the index. All updates of one player go through
+ * {@link ConcurrentHashMap#compute}, so an ID added concurrently with the removal of the player's
+ * last other ID is never lost.
+ */
+public final class PlayerShareIndex {
+    private final Map<UUID, Set<String>> index = new ConcurrentHashMap<>();
+
+    /**
+     * Records a share under a player.
+     *
+     * @param player the player UUID
+     * @param shareId the share ID
+     */
+    public void add(@NotNull UUID player, @NotNull String shareId) {
+        index.compute(player, (key, ids) -> {
+            Set<String> result = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            result.add(shareId);
+            return result;
+        });
+    }
+
+    /**
+     * Removes a share from a player.
+     *
+     * @param player the player UUID
+     * @param shareId the share ID
+     */
+    public void remove(@NotNull UUID player, @NotNull String shareId) {
+        index.computeIfPresent(player, (key, ids) -> {
+            ids.remove(shareId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Gets the IDs of the shares indexed under a player.
+     *
+     * @param player the player UUID
+     * @return an unmodifiable live view of the player's share IDs, empty if there are none
+     */
+    @NotNull
+    public Set<String> get(@NotNull UUID player) {
+        Set<String> ids = index.get(player);
+        return ids != null ? Collections.unmodifiableSet(ids) : Set.of();
+    }
+
+    /**
+     * @param player the player UUID
+     * @return the number of shares indexed under the player
+     */
+    public int count(@NotNull UUID player) {
+        Set<String> ids = index.get(player);
+        return ids != null ? ids.size() : 0;
+    }
+
+    /**
+     * @return the number of players with at least one share
+     */
+    public int playerCount() {
+        return index.size();
+    }
+
+    public void clear() {
+        index.clear();
+    }
+}
@@ -0,0 +1,144 @@
+package com.showcase.data;
+
+import com.mojang.serialization.Codec;
+import com.showcase.ShowcaseMod;
+import com.showcase.config.ModConfigManager;
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player statistics, split by UUID hash across a fixed number of shard files.
+ * <p>
+ * A shard is read the first time one of its players is looked up and only shards holding a changed
+ * player are written back, so the cost of a save follows recent activity rather than the number of
+ * players who have ever shared.
+ */
+public final class PlayerStatisticsStore {
+    private static final int SHARD_COUNT = 64;
+    private static final String SHARD_DIR = "showcase_statistics";
+    private static final Codec<Map<String, PlayerStatisticsData>> SHARD_CODEC =
+            Codec.unboundedMap(Codec.STRING, PlayerStatisticsData.CODEC);
+
+    private static final Map<Integer, Map<String, PlayerStatisticsData>> LOADED_SHARDS = new ConcurrentHashMap<>();
+    private static final Set<Integer> DIRTY_SHARDS = ConcurrentHashMap.newKeySet();
+
+    private PlayerStatisticsStore() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Gets the stored statistics of a player, loading the player's shard if needed.
+     *
+     * @param server the server whose world directory holds the data
+     * @param playerUuid the player UUID as a string
+     * @return the stored statistics, or null if the player has none
+     */
+    @Nullable
+    public static PlayerStatisticsData get(@NotNull MinecraftServer server, @NotNull String playerUuid) {
+        return getShard(server, shardOf(playerUuid)).get(playerUuid);
+    }
+
+    /**
+     * Replaces the stored statistics of a player and marks the shard for the next flush.
+     *
+     * @param server the server whose world directory holds the data
+     * @param playerUuid the player UUID as a string
+     * @param data the new statistics
+     * @return true if the player had no stored statistics before
+     */
+    public static boolean put(@NotNull MinecraftServer server, @NotNull String playerUuid, @NotNull PlayerStatisticsData data) {
+        int shard = shardOf(playerUuid);
+        boolean added = getShard(server, shard).put(playerUuid, data) == null;
+        DIRTY_SHARDS.add(shard);
+        return added;
+    }
+
+    /**
+     * Writes every shard that changed since the last flush.
+     *
+     * @param server the server whose world directory holds the data
+     * @return the number of shards queued for writing
+     */
+    public static int flush(@NotNull MinecraftServer server) {
+        int written = 0;
+        for (Integer shard : DIRTY_SHARDS) {
+            DIRTY_SHARDS.remove(shard);
+            Map<String, PlayerStatisticsData> players = LOADED_SHARDS.get(shard);
+            if (players == null) continue;
+
+            // A write that fails on the I/O executor marks the shard dirty again for the next flush
+            storageOf(shard).saveAsync(server, new HashMap<>(players))
+                    .whenComplete((result, error) -> {
+                        if (error != null) DIRTY_SHARDS.add(shard);
+                    });
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Moves statistics from the old single-file layout into shards and writes them.
+     *
+     * @param server the server whose world directory holds the data
+     * @param legacy the per-player statistics from the old file
+     */
+    public static void importLegacy(@NotNull MinecraftServer server, @NotNull Map<String, PlayerStatisticsData> legacy) {
+        legacy.forEach((uuid, data) -> put(server, uuid, data));
+        int shards = flush(server);
+        ShowcaseMod.LOGGER.info("Migrated statistics of {} players into {} shard files", legacy.size(), shards);
+    }
+
+    /**
+     * Drops all loaded shards. Unflushed changes are lost.
+     */
+    public static void clear() {
+        LOADED_SHARDS.clear();
+        DIRTY_SHARDS.clear();
+    }
+
+    /**
+     * @return the number of shards currently held in memory
+     */
+    public static int getLoadedShardCount() {
+        return LOADED_SHARDS.size();
+    }
+
+    /**
+     * Reads a player's shard on the {@link IoExecutor} if it is not loaded yet, so the first lookup
+     * after the player joins does not wait for the disk.
+     *
+     * @param server the server whose world directory holds the data
+     * @param playerUuid the player UUID as a string
+     */
+    public static void preload(@NotNull MinecraftServer server, @NotNull String playerUuid) {
+        int shard = shardOf(playerUuid);
+        if (LOADED_SHARDS.containsKey(shard)) return;
+        IoExecutor.submit(storageOf(shard).getFilePath(server), () -> getShard(server, shard));
+    }
+
+    private static Map<String, PlayerStatisticsData> getShard(MinecraftServer server, int shard) {
+        Map<String, PlayerStatisticsData> loaded = LOADED_SHARDS.get(shard);
+        if (loaded != null) return loaded;
+
+        // Read outside the map, so a slow disk never holds up lookups of other shards
+        Map<String, PlayerStatisticsData> stored = storageOf(shard).load(server);
+        Map<String, PlayerStatisticsData> players = stored != null ? new ConcurrentHashMap<>(stored) : new ConcurrentHashMap<>();
+        Map<String, PlayerStatisticsData> existing = LOADED_SHARDS.putIfAbsent(shard, players);
+        return existing != null ? existing : players;
+    }
+
+    private static DataStorage<Map<String, PlayerStatisticsData>> storageOf(int shard) {
+        return DataStorage.of(SHARD_DIR + "/shard-" + String.format("%02x", shard), SHARD_CODEC,
+                ModConfigManager.getStorageFormat(), StreamingMap.root(PlayerStatisticsData.CODEC));
+    }
+
+    private static int shardOf(String playerUuid) {
+        return Math.floorMod(playerUuid.hashCode(), SHARD_COUNT);
+    }
+}
@@ -14,7 +14,8 @@ public record ServerStatisticsData(
     Map<String, Integer> shareTypeGlobalStats,
     long cacheHits,
     long cacheMisses,
-    Map<String, PlayerStatisticsData> playerStatistics
+    Map<String, PlayerStatisticsData> playerStatistics,
+    int trackedPlayers
 ) {
 
     public static final Codec<ServerStatisticsData> CODEC = RecordCodecBuilder.create(instance ->
@@ -24,18 +25,25 @@ public record ServerStatisticsData(
                 .fieldOf("shareTypeGlobalStats").forGetter(ServerStatisticsData::shareTypeGlobalStats),
             Codec.LONG.fieldOf("cacheHits").forGetter(ServerStatisticsData::cacheHits),
             Codec.LONG.fieldOf("cacheMisses").forGetter(ServerStatisticsData::cacheMisses),
+            // Only present in files written before statistics were sharded per player
             Codec.unboundedMap(Codec.STRING, PlayerStatisticsData.CODEC)
-                .fieldOf("playerStatistics").forGetter(ServerStatisticsData::playerStatistics)
+                .optionalFieldOf("playerStatistics", Map.of()).forGetter(ServerStatisticsData::playerStatistics),
+            Codec.INT.optionalFieldOf("trackedPlayers", 0).forGetter(ServerStatisticsData::trackedPlayers)
         ).apply(instance, ServerStatisticsData::new)
     );
 
+    public ServerStatisticsData withPlayerStatistics(Map<String, PlayerStatisticsData> playerStatistics) {
+        return new ServerStatisticsData(totalViewsEver, shareTypeGlobalStats, cacheHits, cacheMisses, playerStatistics, trackedPlayers);
+    }
+
     public static ServerStatisticsData empty() {
         return new ServerStatisticsData(
             0L,
             new HashMap<>(),
             0L,
             0L,
-            new HashMap<>()
+            new HashMap<>(),
+            0
         );
     }
 }
\ No newline at end of file
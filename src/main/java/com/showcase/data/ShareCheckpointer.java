@@ -0,0 +1,180 @@
+package com.showcase.data;
+
+import com.showcase.ShowcaseMod;
+import com.showcase.config.ModConfigManager;
+import com.showcase.utils.TickWorkScheduler;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically writes a checkpoint of {@link ShareRepository} so live shares survive a crash.
+ * <p>
+ * A checkpoint is due once the configured interval has passed or the configured number of
+ * mutations has accumulated since the last one. The only work done on the server thread is a
+ * shallow copy of the share map; encoding and writing happen on the {@link IoExecutor}. With the
+ * share journal enabled a checkpoint is a journal compaction, which runs entirely off-thread.
+ */
+public final class ShareCheckpointer {
+    private static final Object SUBMIT_LOCK = new Object();
+    private static final AtomicBoolean IN_PROGRESS = new AtomicBoolean();
+
+    private static volatile boolean requested = false;
+    private static volatile boolean closed = true;
+    private static long lastCheckpointVersion = 0;
+    private static long lastCheckpointAt = 0;
+
+    private static final AtomicLong checkpointCount = new AtomicLong();
+    private static volatile long lastDurationNanos = 0;
+    private static volatile long lastPauseNanos = 0;
+    private static final AtomicLong maxPauseNanos = new AtomicLong();
+    private static volatile int lastSizeBytes = 0;
+    private static volatile int lastShareCount = 0;
+
+    /**
+     * Snapshot of the checkpoint counters.
+     *
+     * @param checkpoints checkpoints completed since startup
+     * @param lastDurationMs encode and write time of the most recent checkpoint
+     * @param lastPauseMs server thread time spent copying the share map for the most recent checkpoint
+     * @param maxPauseMs worst server thread time spent copying the share map
+     * @param lastSizeBytes encoded size of the most recent checkpoint
+     * @param lastShareCount shares in the most recent checkpoint
+     */
+    public record Metrics(long checkpoints, double lastDurationMs, double lastPauseMs, double maxPauseMs,
+                          int lastSizeBytes, int lastShareCount) {}
+
+    private ShareCheckpointer() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static void registerTickEvent() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            long start = System.nanoTime();
+            onTick(server);
+            TickWorkScheduler.recordTickWork(System.nanoTime() - start);
+        });
+    }
+
+    /**
+     * Starts counting from the currently loaded shares, which are already on disk.
+     */
+    public static void open() {
+        lastCheckpointVersion = ShareRepository.getModificationCount();
+        lastCheckpointAt = System.currentTimeMillis();
+        requested = false;
+        closed = false;
+    }
+
+    /**
+     * Stops taking checkpoints. A checkpoint still being encoded is discarded rather than written
+     * over the final shutdown save.
+     */
+    public static void close() {
+        synchronized (SUBMIT_LOCK) {
+            closed = true;
+        }
+    }
+
+    /**
+     * Takes a checkpoint on the next tick if any share changed since the last one.
+     */
+    public static void requestCheckpoint() {
+        requested = true;
+    }
+
+    private static void onTick(MinecraftServer server) {
+        if (closed || IN_PROGRESS.get()) return;
+
+        long version = ShareRepository.getModificationCount();
+        long pending = version - lastCheckpointVersion;
+        if (pending <= 0) {
+            requested = false;
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        int threshold = ModConfigManager.getCheckpointMutationThreshold();
+        int interval = ModConfigManager.getCheckpointIntervalSeconds();
+        boolean due = requested
+                || (threshold > 0 && pending >= threshold)
+                || (interval > 0 && now - lastCheckpointAt >= interval * 1000L);
+        if (!due) return;
+
+        requested = false;
+        lastCheckpointVersion = version;
+        lastCheckpointAt = now;
+
+        if (ShareJournal.isActive()) {
+            ShareJournal.compact();
+        } else {
+            checkpoint(server);
+        }
+    }
+
+    private static void checkpoint(MinecraftServer server) {
+        long pauseStart = System.nanoTime();
+        long stamp = ShareTierStore.beginSnapshot();
+        Map<String, ShareEntry> snapshot = new HashMap<>(ShareRepository.getAllShares());
+        recordPause(System.nanoTime() - pauseStart);
+
+        IN_PROGRESS.set(true);
+        IoExecutor.submit(ShowcaseMod.PLAYER_SHARE_STORAGE.getFilePath(server), () -> writeCheckpoint(server, snapshot, stamp));
+    }
+
+    private static void writeCheckpoint(MinecraftServer server, Map<String, ShareEntry> snapshot, long stamp) {
+        long start = System.nanoTime();
+        try {
+            DataStorage.PreparedWrite write = ShowcaseMod.PLAYER_SHARE_STORAGE.prepareWrite(server, snapshot);
+
+            synchronized (SUBMIT_LOCK) {
+                if (closed) return;
+                DataWritePipeline.submit(write);
+            }
+            recordCheckpoint(System.nanoTime() - start, write.size(), snapshot.size());
+        } catch (Exception e) {
+            ShowcaseMod.LOGGER.error("Failed to write share checkpoint", e);
+        } finally {
+            ShareTierStore.endSnapshot(stamp);
+            IN_PROGRESS.set(false);
+        }
+    }
+
+    private static void recordPause(long nanos) {
+        lastPauseNanos = nanos;
+        maxPauseNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Records a completed checkpoint, including journal compactions.
+     *
+     * @param durationNanos time spent encoding and writing
+     * @param sizeBytes encoded size
+     * @param shareCount number of shares written
+     */
+    static void recordCheckpoint(long durationNanos, int sizeBytes, int shareCount) {
+        checkpointCount.incrementAndGet();
+        lastDurationNanos = durationNanos;
+        lastSizeBytes = sizeBytes;
+        lastShareCount = shareCount;
+        ShowcaseMod.LOGGER.debug("Share checkpoint of {} shares ({} bytes) took {}ms",
+                shareCount, sizeBytes, durationNanos / 1_000_000);
+    }
+
+    @NotNull
+    public static Metrics getMetrics() {
+        return new Metrics(
+                checkpointCount.get(),
+                lastDurationNanos / 1_000_000.0,
+                lastPauseNanos / 1_000_000.0,
+                maxPauseNanos.get() / 1_000_000.0,
+                lastSizeBytes,
+                lastShareCount
+        );
+    }
+}
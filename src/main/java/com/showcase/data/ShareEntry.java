@@ -8,8 +8,10 @@ import com.showcase.gui.MerchantContext;
 import com.showcase.utils.PlayerUtils;
 import com.showcase.utils.ReadOnlyInventory;
 import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.Nullable;
 
-
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -17,49 +19,87 @@ import java.util.stream.Collectors;
 import static com.showcase.gui.MerchantContext.MERCHANT_CONTEXT_CODEC;
 import static com.showcase.utils.ReadOnlyInventory.READ_ONLY_INVENTORY_CODEC;
 
+/**
+ * A single share. Owner, type, payload and timing never change after creation.
+ * <p>
+ * The view count, invalid flag and receivers are changed on the server thread while the cleanup
+ * thread and saves read them, so they are volatile and updated with compare-and-set instead of a
+ * lock. Receivers are held as an immutable set that is replaced on every change, so readers can
+ * iterate it without copying.
+ */
 public class ShareEntry {
+    private static final VarHandle VIEW_COUNT;
+    private static final VarHandle IS_INVALID;
+    private static final VarHandle RECEIVER_UUIDS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            VIEW_COUNT = lookup.findVarHandle(ShareEntry.class, "viewCount", int.class);
+            IS_INVALID = lookup.findVarHandle(ShareEntry.class, "isInvalid", boolean.class);
+            RECEIVER_UUIDS = lookup.findVarHandle(ShareEntry.class, "receiverUuids", Set.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final UUID ownerUuid;
     private final ShowcaseManager.ShareType type;
-    private final ReadOnlyInventory inventory;
-    private final MerchantContext merchantContext;
+    private final LazyPayload<ReadOnlyInventory> inventory;
+    private final LazyPayload<MerchantContext> merchantContext;
     private final long timestamp;
     private final int duration;
-    private int viewCount;
-    private boolean isInvalid;
-    private final Set<UUID> receiverUuids;
+    private volatile int viewCount;
+    private volatile boolean isInvalid;
+    private volatile Set<UUID> receiverUuids;
 
-    public static final Codec<ShareEntry> SHARE_ENTRY_CODEC = RecordCodecBuilder.create(instance ->
+    /**
+     * The mutable fields of a share read once each, so an encoded share never mixes states.
+     */
+    private record Snapshot(UUID ownerUuid, ShowcaseManager.ShareType type,
+                            Optional<LazyPayload<ReadOnlyInventory>> inventory,
+                            Optional<LazyPayload<MerchantContext>> merchantContext,
+                            long timestamp, int duration, int viewCount, boolean isInvalid,
+                            List<UUID> receivers) {
+        private ShareEntry toEntry() {
+            return new ShareEntry(ownerUuid, type, inventory.orElse(null), merchantContext.orElse(null),
+                    timestamp, duration, viewCount, isInvalid, Set.copyOf(receivers));
+        }
+    }
+
+    private static final Codec<Snapshot> SNAPSHOT_CODEC = RecordCodecBuilder.create(instance ->
             instance.group(
-                    Codec.STRING.xmap(UUID::fromString, UUID::toString).fieldOf("ownerUuid").forGetter(ShareEntry::getOwnerUuid),
-                    Codec.STRING.xmap(ShowcaseManager.ShareType::valueOf, ShowcaseManager.ShareType::name).fieldOf("type").forGetter(ShareEntry::getType),
-                    READ_ONLY_INVENTORY_CODEC.optionalFieldOf("inventory").forGetter(entry -> Optional.ofNullable(entry.getInventory())),
-                    MERCHANT_CONTEXT_CODEC.optionalFieldOf("merchantContext").forGetter(entry -> Optional.ofNullable(entry.getMerchantContext())),
-                    Codec.LONG.fieldOf("timestamp").forGetter(ShareEntry::getTimestamp),
-                    Codec.INT.fieldOf("duration").forGetter(ShareEntry::getDuration),
-                    Codec.INT.fieldOf("viewCount").forGetter(ShareEntry::getViewCount),
-                    Codec.BOOL.fieldOf("isInvalid").forGetter(ShareEntry::getIsInvalid),
+                    Codec.STRING.xmap(UUID::fromString, UUID::toString).fieldOf("ownerUuid").forGetter(Snapshot::ownerUuid),
+                    Codec.STRING.xmap(ShowcaseManager.ShareType::valueOf, ShowcaseManager.ShareType::name).fieldOf("type").forGetter(Snapshot::type),
+                    // Payloads are decoded on first access, so loading only pays for the metadata
+                    LazyPayload.codec(READ_ONLY_INVENTORY_CODEC).optionalFieldOf("inventory").forGetter(Snapshot::inventory),
+                    LazyPayload.codec(MERCHANT_CONTEXT_CODEC).optionalFieldOf("merchantContext").forGetter(Snapshot::merchantContext),
+                    Codec.LONG.fieldOf("timestamp").forGetter(Snapshot::timestamp),
+                    Codec.INT.fieldOf("duration").forGetter(Snapshot::duration),
+                    Codec.INT.fieldOf("viewCount").forGetter(Snapshot::viewCount),
+                    Codec.BOOL.fieldOf("isInvalid").forGetter(Snapshot::isInvalid),
                     Codec.list(Codec.STRING.xmap(UUID::fromString, UUID::toString))
                             .fieldOf("receivers")
-                            .forGetter(entry -> new ArrayList<>(entry.receiverUuids))
-            ).apply(instance, (ownerUuid, type, inventoryOpt, merchantContextOpt, timestamp, duration, viewCount, isInvalid, receiverList) ->
-                    new ShareEntry(
-                            ownerUuid,
-                            type,
-                            inventoryOpt.orElse(null),
-                            merchantContextOpt.orElse(null),
-                            timestamp,
-                            duration,
-                            viewCount,
-                            isInvalid,
-                            new HashSet<>(receiverList)
-                    )
-            )
+                            .forGetter(Snapshot::receivers)
+            ).apply(instance, Snapshot::new)
     );
 
+    public static final Codec<ShareEntry> SHARE_ENTRY_CODEC = SNAPSHOT_CODEC.xmap(Snapshot::toEntry, ShareEntry::snapshot);
+
     public ShareEntry(UUID ownerUuid, ShowcaseManager.ShareType type,
                       ReadOnlyInventory inventory, MerchantContext merchantContext,
                       long timestamp, int duration, int viewCount, boolean isInvalid,
                       Set<UUID> receiverUuids) {
+        this(ownerUuid, type,
+                LazyPayload.of(READ_ONLY_INVENTORY_CODEC, inventory),
+                LazyPayload.of(MERCHANT_CONTEXT_CODEC, merchantContext),
+                timestamp, duration, viewCount, isInvalid, receiverUuids);
+    }
+
+    private ShareEntry(UUID ownerUuid, ShowcaseManager.ShareType type,
+                       LazyPayload<ReadOnlyInventory> inventory, LazyPayload<MerchantContext> merchantContext,
+                       long timestamp, int duration, int viewCount, boolean isInvalid,
+                       Set<UUID> receiverUuids) {
         this.ownerUuid = ownerUuid;
         this.type = type;
         this.inventory = inventory;
@@ -68,7 +108,7 @@ public class ShareEntry {
         this.duration = duration;
         this.viewCount = viewCount;
         this.isInvalid = isInvalid;
-        this.receiverUuids = receiverUuids != null ? receiverUuids : new HashSet<>();
+        this.receiverUuids = receiverUuids != null ? Set.copyOf(receiverUuids) : Set.of();
     }
 
     public ShareEntry(UUID ownerUuid, ShowcaseManager.ShareType type, MerchantContext merchantContext, Integer duration, Collection<ServerPlayerEntity> receivers) {
@@ -88,24 +128,150 @@ public class ShareEntry {
     // Getters
     public UUID getOwnerUuid() { return ownerUuid; }
     public ShowcaseManager.ShareType getType() { return type; }
-    public ReadOnlyInventory getInventory() { return inventory; }
-    public MerchantContext getMerchantContext() { return merchantContext; }
+    /**
+     * Blocks to read a spilled inventory back, see {@link #getLoadedInventory()} for the server thread.
+     */
+    public ReadOnlyInventory getInventory() { return inventory != null ? inventory.get() : null; }
+    /**
+     * Blocks to read a spilled merchant back, see {@link #getLoadedMerchantContext()} for the server thread.
+     */
+    public MerchantContext getMerchantContext() { return merchantContext != null ? merchantContext.get() : null; }
     public long getTimestamp() { return timestamp; }
     public int getDuration() { return duration; }
+    public long getExpiresAt() { return timestamp + duration * 1000L; }
     public int getViewCount() { return viewCount; }
     public boolean getIsInvalid() { return isInvalid; }
+    /**
+     * @return an immutable snapshot of the receivers, empty if the share is public
+     */
     public Set<UUID> getReceiverUuids() { return receiverUuids; }
 
+    /**
+     * Decodes the inventory or merchant payload if it has not been decoded yet.
+     *
+     * @return true if the payload this share type needs is available
+     */
+    public boolean loadPayload() {
+        return type == ShowcaseManager.ShareType.MERCHANT ? getMerchantContext() != null : getInventory() != null;
+    }
+
+    /**
+     * Returns the inventory only if it is in memory. A spilled inventory is read back on the
+     * {@link IoExecutor} instead, so this never waits for the spill file.
+     *
+     * @return the inventory, or null while it is spilled or if there is none
+     */
+    @Nullable
+    public ReadOnlyInventory getLoadedInventory() {
+        return inventory != null ? loaded(inventory) : null;
+    }
+
+    /**
+     * Returns the merchant only if it is in memory, see {@link #getLoadedInventory()}.
+     *
+     * @return the merchant, or null while it is spilled or if there is none
+     */
+    @Nullable
+    public MerchantContext getLoadedMerchantContext() {
+        return merchantContext != null ? loaded(merchantContext) : null;
+    }
+
+    private <T> T loaded(LazyPayload<T> payload) {
+        T value = payload.getIfLoaded();
+        if (value == null && payload.isSpilled()) ShareTierStore.loadPayload(this);
+        return value;
+    }
+
+    /**
+     * Moves the payload to the spill file, see {@link ShareTierStore}.
+     *
+     * @param shareId the ID of this share
+     * @return true if the payload was spilled
+     */
+    boolean spillPayload(String shareId) {
+        LazyPayload<?> payload = type == ShowcaseManager.ShareType.MERCHANT ? merchantContext : inventory;
+        return payload != null && payload.spill(shareId);
+    }
+
+    /**
+     * @return true if the payload is only held in the spill file
+     */
+    boolean isPayloadSpilled() {
+        LazyPayload<?> payload = type == ShowcaseManager.ShareType.MERCHANT ? merchantContext : inventory;
+        return payload != null && payload.isSpilled();
+    }
+
+    private Snapshot snapshot() {
+        return new Snapshot(ownerUuid, type, Optional.ofNullable(inventory), Optional.ofNullable(merchantContext),
+                timestamp, duration, viewCount, isInvalid, List.copyOf(receiverUuids));
+    }
+
+    /**
+     * Copies this share with a different owner. The copy holds the same payload.
+     *
+     * @param newOwner the owner of the copy
+     * @return the copy
+     */
+    ShareEntry withOwner(UUID newOwner) {
+        return new ShareEntry(newOwner, type, inventory, merchantContext, timestamp, duration, viewCount, isInvalid, receiverUuids);
+    }
+
     // Logic
-    public void incrementViewCount() { this.viewCount++; }
-    public void invalidShare() { this.isInvalid = true; }
+    public void incrementViewCount() { VIEW_COUNT.getAndAdd(this, 1); }
+    void restoreViewCount(int viewCount) { this.viewCount = viewCount; }
+
+    /**
+     * Marks this share as invalid.
+     *
+     * @return true if this call invalidated the share, false if it already was invalid
+     */
+    public boolean invalidShare() {
+        return IS_INVALID.compareAndSet(this, false, true);
+    }
+
+    /**
+     * Adds or removes a receiver. Only {@link ShareRepository} calls this for stored shares, so the
+     * receiver index stays in step.
+     *
+     * @param receiver the receiving player
+     * @param add true to add the receiver, false to remove it
+     * @return true if the receivers changed
+     */
+    boolean updateReceivers(UUID receiver, boolean add) {
+        Set<UUID> current;
+        Set<UUID> updated;
+        do {
+            current = receiverUuids;
+            if (current.contains(receiver) == add) return false;
+
+            Set<UUID> copy = new HashSet<>(current);
+            if (add) copy.add(receiver);
+            else copy.remove(receiver);
+            updated = Set.copyOf(copy);
+        } while (!RECEIVER_UUIDS.compareAndSet(this, current, updated));
+        return true;
+    }
 
+    /**
+     * @deprecated use {@link ShareRepository#addReceiver(String, UUID)}, which keeps the receiver
+     * index in step without looking up the share ID
+     */
+    @Deprecated
     public void addReceiver(ServerPlayerEntity player) {
-        receiverUuids.add(player.getUuid());
+        String shareId = ShareRepository.findShareId(this);
+        if (shareId != null) ShareRepository.addReceiver(shareId, player.getUuid());
+        else updateReceivers(player.getUuid(), true);
     }
 
+    /**
+     * @deprecated use {@link ShareRepository#removeReceiver(String, UUID)}, which keeps the receiver
+     * index in step without looking up the share ID
+     */
+    @Deprecated
     public void removeReceiver(ServerPlayerEntity player) {
-        receiverUuids.remove(player.getUuid());
+        String shareId = ShareRepository.findShareId(this);
+        if (shareId != null) ShareRepository.removeReceiver(shareId, player.getUuid());
+        else updateReceivers(player.getUuid(), false);
     }
 
     public Collection<ServerPlayerEntity> getReceiver(net.minecraft.server.MinecraftServer server) {
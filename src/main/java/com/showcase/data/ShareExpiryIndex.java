@@ -0,0 +1,135 @@
+package com.showcase.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongConsumer;
+
+/**
+ * Orders shares by the time they expire, so a sweep only visits shares that are actually due.
+ * <p>
+ * Each share has at most one live deadline. Rescheduling replaces it; the deadline map is the
+ * source of truth, so a queue entry whose deadline no longer matches is ignored when polled.
+ */
+public final class ShareExpiryIndex {
+    /**
+     * Deadline used for shares that should be purged on the next sweep.
+     */
+    public static final long IMMEDIATELY = Long.MIN_VALUE;
+
+    private record Deadline(long at, String shareId) {}
+
+    private static final Comparator<Deadline> ORDER = Comparator.comparingLong(Deadline::at)
+            .thenComparing(Deadline::shareId);
+
+    private final NavigableSet<Deadline> queue = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+    private volatile LongConsumer listener;
+
+    /**
+     * Sets the callback told about every deadline that is set, so a sleeping sweeper can wake up
+     * for one earlier than it planned.
+     *
+     * @param listener receives the deadline in epoch milliseconds, or null to stop notifying
+     */
+    public void setListener(@Nullable LongConsumer listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets or replaces the deadline of a share.
+     *
+     * @param shareId the share ID
+     * @param at the expiry time in epoch milliseconds
+     */
+    public void schedule(@NotNull String shareId, long at) {
+        deadlines.compute(shareId, (id, previous) -> {
+            if (previous != null) queue.remove(new Deadline(previous, id));
+            queue.add(new Deadline(at, id));
+            return at;
+        });
+
+        LongConsumer current = listener;
+        if (current != null) current.accept(at);
+    }
+
+    /**
+     * Moves a share to the front so the next sweep purges it.
+     *
+     * @param shareId the share ID
+     */
+    public void expireNow(@NotNull String shareId) {
+        schedule(shareId, IMMEDIATELY);
+    }
+
+    /**
+     * Removes the deadline of a share.
+     *
+     * @param shareId the share ID
+     */
+    public void unschedule(@NotNull String shareId) {
+        deadlines.computeIfPresent(shareId, (id, previous) -> {
+            queue.remove(new Deadline(previous, id));
+            return null;
+        });
+    }
+
+    /**
+     * Removes and returns the shares whose deadline is at or before the given time, earliest first.
+     *
+     * @param now the current time in epoch milliseconds
+     * @param limit the most shares to return; the rest stay due for the next poll
+     * @return the IDs of the due shares
+     */
+    @NotNull
+    public List<String> pollDue(long now, int limit) {
+        List<String> due = new ArrayList<>();
+        Deadline first;
+        while (due.size() < limit && (first = queue.pollFirst()) != null) {
+            if (first.at() > now) {
+                // Not due yet, put it back; anything after it is even later
+                queue.add(first);
+                break;
+            }
+            if (deadlines.remove(first.shareId(), first.at())) {
+                due.add(first.shareId());
+            }
+        }
+        return due;
+    }
+
+    /**
+     * @return the earliest deadline in epoch milliseconds, or {@link Long#MAX_VALUE} if nothing is scheduled
+     */
+    public long nextDeadline() {
+        Deadline first = queue.ceiling(new Deadline(Long.MIN_VALUE, ""));
+        return first != null ? first.at() : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the number of scheduled shares
+     */
+    public int size() {
+        return deadlines.size();
+    }
+
+    public void clear() {
+        queue.clear();
+        deadlines.clear();
+    }
+
+    /**
+     * @param entry the share
+     * @return when the share should be purged
+     */
+    static long deadlineOf(@NotNull ShareEntry entry) {
+        return entry.getIsInvalid() ? IMMEDIATELY : entry.getExpiresAt();
+    }
+}
@@ -0,0 +1,82 @@
+package com.showcase.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates share IDs without touching {@link java.security.SecureRandom}.
+ * <p>
+ * Each ID is a counter value passed through a bijective scramble over {@value #BITS} bits and
+ * written as {@value #LENGTH} base62 characters, so IDs from one allocator never repeat until the
+ * counter wraps and consecutive IDs do not look sequential. The counter and the scramble key are
+ * seeded randomly at startup, which keeps IDs from a restarted server away from the ones it
+ * persisted; {@link ShareRepository#add} still rejects any ID that is already live.
+ * <p>
+ * An optional node prefix keeps IDs from several servers sharing one storage apart.
+ */
+public final class ShareIdAllocator {
+    static final int BITS = 47;
+    static final int LENGTH = 8;
+
+    private static final long MASK = (1L << BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private final AtomicLong counter;
+    private final long key;
+    private final AtomicLong collisions = new AtomicLong();
+
+    public ShareIdAllocator() {
+        this(ThreadLocalRandom.current().nextLong(), ThreadLocalRandom.current().nextLong());
+    }
+
+    ShareIdAllocator(long seed, long key) {
+        this.counter = new AtomicLong(seed);
+        this.key = key & MASK;
+    }
+
+    /**
+     * @param prefix the node prefix, may be empty
+     * @return a new ID, unique among IDs from this allocator
+     */
+    @NotNull
+    public String next(@NotNull String prefix) {
+        long value = scramble(counter.getAndIncrement());
+
+        char[] id = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            id[i] = ALPHABET[(int) (value % ALPHABET.length)];
+            value /= ALPHABET.length;
+        }
+        return prefix.isEmpty() ? new String(id) : prefix + new String(id);
+    }
+
+    /**
+     * Records that an allocated ID was already live and had to be replaced.
+     */
+    void recordCollision() {
+        collisions.incrementAndGet();
+    }
+
+    /**
+     * @return IDs rejected because they were already live, since startup
+     */
+    public long getCollisionCount() {
+        return collisions.get();
+    }
+
+    /**
+     * A permutation of the low {@value #BITS} bits: every step (xor with a constant, xorshift,
+     * multiplication by an odd constant) is invertible modulo 2^{@value #BITS}.
+     */
+    private long scramble(long value) {
+        long x = (value ^ key) & MASK;
+        x ^= x >>> 23;
+        x = (x * 0x2127599BF4325C37L) & MASK;
+        x ^= x >>> 19;
+        x = (x * 0x3C79AC492BA7B653L) & MASK;
+        x ^= x >>> 21;
+        return x;
+    }
+}
@@ -0,0 +1,328 @@
+package com.showcase.data;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.JsonOps;
+import com.showcase.ShowcaseMod;
+import com.showcase.config.ModConfigManager;
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.showcase.data.ShareEntry.SHARE_ENTRY_CODEC;
+
+/**
+ * Append-only write-ahead journal for {@link ShareRepository}.
+ * <p>
+ * Every share mutation is appended as one JSON line next to the share snapshot. Once the journal
+ * grows past the configured threshold a compaction replays it on top of the previous snapshot,
+ * writes the result as the new snapshot and truncates the journal. On startup the snapshot is
+ * loaded first and the journal is replayed on top of it.
+ * <p>
+ * {@link ShareRepository} records a mutation under the same map lock that applies it, so the
+ * records of one share are in the order of its changes. Records are idempotent (view records carry
+ * the absolute count), so a record that is already reflected in the snapshot can be replayed again
+ * without changing the result.
+ */
+public final class ShareJournal {
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Showcase-Journal");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final String OP = "op";
+    private static final String ID = "id";
+    private static final String ENTRY = "entry";
+    private static final String COUNT = "count";
+
+    private enum Op { PUT, REMOVE, INVALIDATE, VIEW }
+
+    private static volatile MinecraftServer server;
+    private static DataStorage<Map<String, ShareEntry>> snapshotStorage;
+    private static FileChannel channel;
+    private static int recordsSinceCompaction = 0;
+
+    private ShareJournal() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Checks whether mutations are currently being journaled.
+     *
+     * @return true if the journal is open
+     */
+    public static boolean isActive() {
+        return server != null;
+    }
+
+    /**
+     * Loads the share snapshot and replays the journal on top of it.
+     *
+     * @param server the server whose world directory holds the data
+     * @param storage the snapshot storage the journal is compacted into
+     * @return the recovered shares, never null
+     */
+    @NotNull
+    public static Map<String, ShareEntry> load(@NotNull MinecraftServer server,
+                                               @NotNull DataStorage<Map<String, ShareEntry>> storage) {
+        Map<String, ShareEntry> shares = new HashMap<>();
+        Map<String, ShareEntry> snapshot = storage.load(server);
+        if (snapshot != null) {
+            shares.putAll(snapshot);
+        }
+
+        Path journalPath = getJournalPath(server, storage);
+        if (!Files.exists(journalPath)) {
+            return shares;
+        }
+
+        try {
+            int replayed = replay(server, shares, journalPath);
+            ShowcaseMod.LOGGER.info("Replayed {} share journal records", replayed);
+        } catch (IOException e) {
+            ShowcaseMod.LOGGER.error("Failed to read share journal at {}", journalPath, e);
+        }
+        return shares;
+    }
+
+    /**
+     * Applies the records of a journal file to a share map.
+     *
+     * @return the number of records applied
+     * @throws IOException if the journal cannot be read
+     */
+    private static int replay(MinecraftServer server, Map<String, ShareEntry> shares, Path journalPath) throws IOException {
+        DynamicOps<JsonElement> ops = server.getRegistryManager().getOps(JsonOps.INSTANCE);
+        int replayed = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    apply(shares, JsonParser.parseString(line).getAsJsonObject(), ops);
+                    replayed++;
+                } catch (Exception e) {
+                    // A torn last line after a crash is expected, anything else is worth a warning
+                    ShowcaseMod.LOGGER.warn("Skipping unreadable share journal record: {}", e.getMessage());
+                }
+            }
+        }
+        return replayed;
+    }
+
+    private static void apply(Map<String, ShareEntry> shares, JsonObject record, DynamicOps<JsonElement> ops) {
+        Op op = Op.valueOf(record.get(OP).getAsString());
+        String id = record.get(ID).getAsString();
+
+        switch (op) {
+            case PUT -> shares.put(id, SHARE_ENTRY_CODEC.parse(ops, record.get(ENTRY)).getOrThrow());
+            case REMOVE -> shares.remove(id);
+            case INVALIDATE -> {
+                ShareEntry entry = shares.get(id);
+                if (entry != null) entry.invalidShare();
+            }
+            case VIEW -> {
+                ShareEntry entry = shares.get(id);
+                if (entry != null) entry.restoreViewCount(record.get(COUNT).getAsInt());
+            }
+        }
+    }
+
+    /**
+     * Opens the journal for appending. Any replayed records are compacted right away.
+     *
+     * @param server the running server
+     * @param storage the snapshot storage the journal is compacted into
+     */
+    public static void open(@NotNull MinecraftServer server,
+                            @NotNull DataStorage<Map<String, ShareEntry>> storage) {
+        ShareJournal.snapshotStorage = storage;
+        ShareJournal.server = server;
+        WRITER.execute(() -> {
+            Path journalPath = getJournalPath(server, storage);
+            try {
+                Files.createDirectories(journalPath.getParent());
+                channel = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                recordsSinceCompaction = channel.size() > 0 ? ModConfigManager.getJournalCompactionThreshold() : 0;
+                compactIfNeeded();
+            } catch (IOException e) {
+                ShowcaseMod.LOGGER.error("Failed to open share journal at {}", journalPath, e);
+            }
+        });
+    }
+
+    /**
+     * Flushes pending records, syncs the journal to disk and closes it.
+     * Blocks until the writer thread has caught up.
+     */
+    public static void close() {
+        if (server == null) return;
+        server = null;
+
+        WRITER.execute(() -> {
+            try {
+                if (channel != null) {
+                    channel.force(true);
+                    channel.close();
+                }
+            } catch (IOException e) {
+                ShowcaseMod.LOGGER.error("Failed to close share journal", e);
+            } finally {
+                channel = null;
+            }
+        });
+
+        try {
+            WRITER.submit(() -> {}).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            ShowcaseMod.LOGGER.error("Timed out waiting for share journal to flush", e);
+        }
+    }
+
+    /**
+     * Journals a newly stored share.
+     *
+     * @param shareId the share ID
+     * @param entry the stored entry
+     */
+    public static void recordPut(@NotNull String shareId, @NotNull ShareEntry entry) {
+        append(Op.PUT, shareId, entry);
+    }
+
+    /**
+     * Journals the removal of a share.
+     *
+     * @param shareId the share ID
+     */
+    public static void recordRemove(@NotNull String shareId) {
+        append(Op.REMOVE, shareId, null);
+    }
+
+    /**
+     * Journals a share being cancelled or expired by command.
+     *
+     * @param shareId the share ID
+     */
+    public static void recordInvalidate(@NotNull String shareId) {
+        append(Op.INVALIDATE, shareId, null);
+    }
+
+    /**
+     * Journals the current view count of a share.
+     *
+     * @param shareId the share ID
+     * @param entry the viewed entry
+     */
+    public static void recordView(@NotNull String shareId, @NotNull ShareEntry entry) {
+        append(Op.VIEW, shareId, entry);
+    }
+
+    /**
+     * Folds the journal into the snapshot on the writer thread, regardless of its size.
+     */
+    public static void compact() {
+        if (server == null) return;
+        WRITER.execute(() -> {
+            recordsSinceCompaction = Math.max(recordsSinceCompaction, ModConfigManager.getJournalCompactionThreshold());
+            compactIfNeeded();
+        });
+    }
+
+    private static void append(Op op, String shareId, @Nullable ShareEntry entry) {
+        MinecraftServer current = server;
+        if (current == null) return;
+
+        // Read the view count now so the record reflects this mutation, not a later one
+        int viewCount = entry != null ? entry.getViewCount() : 0;
+        // A put is encoded later on the writer thread and may read the share's spilled payload
+        long stamp = op == Op.PUT ? ShareTierStore.beginSnapshot() : 0;
+
+        WRITER.execute(() -> {
+            try {
+                if (channel == null) return;
+
+                JsonObject record = new JsonObject();
+                record.addProperty(OP, op.name());
+                record.addProperty(ID, shareId);
+                switch (op) {
+                    case PUT -> record.add(ENTRY, SHARE_ENTRY_CODEC.encodeStart(
+                            current.getRegistryManager().getOps(JsonOps.INSTANCE), entry).getOrThrow());
+                    case VIEW -> record.addProperty(COUNT, viewCount);
+                    default -> {}
+                }
+
+                ByteBuffer buffer = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+
+                recordsSinceCompaction++;
+                compactIfNeeded();
+            } catch (Exception e) {
+                ShowcaseMod.LOGGER.error("Failed to append {} record for share {} to journal", op, shareId, e);
+            } finally {
+                if (op == Op.PUT) ShareTierStore.endSnapshot(stamp);
+            }
+        });
+    }
+
+    /**
+     * Replays the journal on top of the previous snapshot, writes the result as the new snapshot and
+     * truncates the journal. Runs on the writer thread only, so no record is appended in between and
+     * the new snapshot holds exactly what was journaled, whatever the repository holds by now.
+     */
+    private static void compactIfNeeded() {
+        MinecraftServer current = server;
+        if (current == null || channel == null) return;
+        if (recordsSinceCompaction < ModConfigManager.getJournalCompactionThreshold()) return;
+
+        long start = System.nanoTime();
+
+        try {
+            Map<String, ShareEntry> shares = new HashMap<>();
+            Map<String, ShareEntry> snapshot = snapshotStorage.load(current);
+            if (snapshot != null) {
+                shares.putAll(snapshot);
+            }
+            // A journal that cannot be read is kept as it is rather than truncated
+            replay(current, shares, getJournalPath(current, snapshotStorage));
+
+            DataStorage.PreparedWrite write = snapshotStorage.prepareWrite(current, shares);
+            write.task().run();
+
+            channel.truncate(0);
+            channel.force(true);
+            recordsSinceCompaction = 0;
+
+            ShareCheckpointer.recordCheckpoint(System.nanoTime() - start, write.size(), shares.size());
+        } catch (Exception e) {
+            // Keep appending and retry once another threshold's worth of records has accumulated
+            recordsSinceCompaction = 0;
+            ShowcaseMod.LOGGER.error("Failed to compact share journal", e);
+        }
+    }
+
+    private static Path getJournalPath(MinecraftServer server, DataStorage<?> storage) {
+        Path snapshotPath = storage.getFilePath(server);
+        return snapshotPath.resolveSibling(storage.path() + ".journal");
+    }
+}
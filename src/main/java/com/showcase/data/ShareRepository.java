@@ -1,18 +1,34 @@
 package com.showcase.data;
 
+import com.showcase.command.ShowcaseManager;
+import com.showcase.config.ModConfigManager;
 import net.minecraft.server.network.ServerPlayerEntity;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
 
 /**
  * Repository class for managing share data storage and retrieval.
+ * <p>
+ * Shares are additionally indexed by owner and by receiver, so per-player queries only touch that
+ * player's shares, and by expiry deadline, so purging only touches shares that are due. Every
+ * stored share is tracked by {@link ShareTierStore}, which bounds how many payloads stay in memory.
  */
 public final class ShareRepository {
     private static final Map<String, ShareEntry> SHARES = new ConcurrentHashMap<>();
+    private static final PlayerShareIndex OWNER_INDEX = new PlayerShareIndex();
+    private static final PlayerShareIndex RECEIVER_INDEX = new PlayerShareIndex();
+    private static final ShareExpiryIndex EXPIRY_INDEX = new ShareExpiryIndex();
+    // Owner -> number of stored shares that are not invalidated, updated with the owner index
+    private static final Map<UUID, Integer> LIVE_COUNTS = new ConcurrentHashMap<>();
+    private static final AtomicLong MODIFICATIONS = new AtomicLong();
+    private static final ShareIdAllocator ID_ALLOCATOR = new ShareIdAllocator();
+    private static final int MAX_ID_ATTEMPTS = 16;
 
     private ShareRepository() {
         throw new UnsupportedOperationException("Utility class");
@@ -25,7 +41,50 @@ public final class ShareRepository {
      * @param entry the share entry to store
      */
     public static void store(@NotNull String shareId, @NotNull ShareEntry entry) {
-        SHARES.put(shareId, entry);
+        SHARES.compute(shareId, (id, previous) -> {
+            if (previous != null) unindex(id, previous);
+            index(id, entry);
+            ShareJournal.recordPut(id, entry);
+            return entry;
+        });
+        MODIFICATIONS.incrementAndGet();
+    }
+
+    /**
+     * Stores a new share entry under a freshly allocated ID.
+     * <p>
+     * An allocated ID that is already live (for example one persisted before a restart) is never
+     * overwritten; another ID is allocated instead.
+     *
+     * @param entry the share entry to store
+     * @return the ID the share was stored under
+     * @throws IllegalStateException if no free ID could be allocated
+     */
+    @NotNull
+    public static String add(@NotNull ShareEntry entry) {
+        String prefix = ModConfigManager.getShareIdPrefix();
+        for (int attempt = 0; attempt < MAX_ID_ATTEMPTS; attempt++) {
+            String shareId = ID_ALLOCATOR.next(prefix);
+            ShareEntry stored = SHARES.computeIfAbsent(shareId, id -> {
+                index(id, entry);
+                ShareJournal.recordPut(id, entry);
+                return entry;
+            });
+
+            if (stored == entry) {
+                MODIFICATIONS.incrementAndGet();
+                return shareId;
+            }
+            ID_ALLOCATOR.recordCollision();
+        }
+        throw new IllegalStateException("Failed to allocate a free share ID after " + MAX_ID_ATTEMPTS + " attempts");
+    }
+
+    /**
+     * @return allocated share IDs that were already live, since startup
+     */
+    public static long getIdCollisionCount() {
+        return ID_ALLOCATOR.getCollisionCount();
     }
 
     /**
@@ -46,7 +105,97 @@ public final class ShareRepository {
      * @return true if the share was removed, false if it didn't exist
      */
     public static boolean remove(@NotNull String shareId) {
-        return SHARES.remove(shareId) != null;
+        ShareEntry[] removed = new ShareEntry[1];
+        SHARES.computeIfPresent(shareId, (id, entry) -> {
+            unindex(id, entry);
+            ShareJournal.recordRemove(id);
+            removed[0] = entry;
+            return null;
+        });
+        if (removed[0] == null) return false;
+        MODIFICATIONS.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Marks a share as invalid so it is no longer viewable and gets purged.
+     *
+     * @param shareId the unique identifier of the share
+     * @return true if the share exists, false otherwise
+     */
+    public static boolean invalidate(@NotNull String shareId) {
+        // Under the entry's map lock, so a concurrent remove cannot count the share out twice
+        ShareEntry entry = SHARES.computeIfPresent(shareId, (id, existing) -> {
+            if (existing.invalidShare()) {
+                adjustLiveCount(existing.getOwnerUuid(), -1);
+            }
+            ShareJournal.recordInvalidate(id);
+            return existing;
+        });
+        if (entry == null) return false;
+
+        EXPIRY_INDEX.expireNow(shareId);
+        MODIFICATIONS.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Increments the view count of a share.
+     *
+     * @param shareId the unique identifier of the share
+     * @return true if the share exists, false otherwise
+     */
+    public static boolean incrementViewCount(@NotNull String shareId) {
+        // Under the entry's map lock, so concurrent views are journaled with increasing counts
+        ShareEntry entry = SHARES.computeIfPresent(shareId, (id, existing) -> {
+            existing.incrementViewCount();
+            ShareJournal.recordView(id, existing);
+            return existing;
+        });
+        if (entry == null) return false;
+
+        ShareTierStore.touch(shareId, entry);
+        MODIFICATIONS.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Adds a receiver to a share and to the receiver index.
+     *
+     * @param shareId the unique identifier of the share
+     * @param receiver the UUID of the receiving player
+     * @return true if the receiver was added, false if the share doesn't exist or already had it
+     */
+    public static boolean addReceiver(@NotNull String shareId, @NotNull UUID receiver) {
+        return updateReceiver(shareId, receiver, true);
+    }
+
+    /**
+     * Removes a receiver from a share and from the receiver index.
+     *
+     * @param shareId the unique identifier of the share
+     * @param receiver the UUID of the receiving player
+     * @return true if the receiver was removed, false if the share doesn't exist or didn't have it
+     */
+    public static boolean removeReceiver(@NotNull String shareId, @NotNull UUID receiver) {
+        return updateReceiver(shareId, receiver, false);
+    }
+
+    private static boolean updateReceiver(String shareId, UUID receiver, boolean add) {
+        // Under the entry's map lock, so a concurrent store or remove sees the index and the entry agree
+        ShareEntry[] changed = new ShareEntry[1];
+        SHARES.computeIfPresent(shareId, (id, entry) -> {
+            if (!entry.updateReceivers(receiver, add)) return entry;
+            if (add) RECEIVER_INDEX.add(receiver, id);
+            else RECEIVER_INDEX.remove(receiver, id);
+            ShareJournal.recordPut(id, entry);
+            changed[0] = entry;
+            return entry;
+        });
+        if (changed[0] == null) return false;
+
+        MODIFICATIONS.incrementAndGet();
+        return true;
     }
 
     /**
@@ -67,9 +216,90 @@ public final class ShareRepository {
      */
     @NotNull
     public static List<ShareEntry> getPlayerShares(@NotNull String playerUuid) {
-        return SHARES.values().stream()
-                .filter(entry -> entry.getOwnerUuid().toString().equals(playerUuid))
-                .collect(Collectors.toList());
+        UUID owner = parseUuid(playerUuid);
+        return owner != null ? getPlayerShares(owner) : new ArrayList<>();
+    }
+
+    /**
+     * Gets all shares owned by a specific player.
+     *
+     * @param owner the UUID of the player
+     * @return a list of shares owned by the player
+     */
+    @NotNull
+    public static List<ShareEntry> getPlayerShares(@NotNull UUID owner) {
+        List<ShareEntry> shares = new ArrayList<>();
+        for (String shareId : OWNER_INDEX.get(owner)) {
+            ShareEntry entry = SHARES.get(shareId);
+            if (entry != null) shares.add(entry);
+        }
+        return shares;
+    }
+
+    /**
+     * Gets the IDs of all shares owned by a specific player.
+     *
+     * @param owner the UUID of the player
+     * @return a snapshot of the player's share IDs
+     */
+    @NotNull
+    public static List<String> getPlayerShareIds(@NotNull UUID owner) {
+        return new ArrayList<>(OWNER_INDEX.get(owner));
+    }
+
+    /**
+     * Finds the ID a share entry is stored under, using the owner index.
+     *
+     * @param entry the share entry
+     * @return the share ID, or null if the entry is not in the repository
+     */
+    @Nullable
+    static String findShareId(@NotNull ShareEntry entry) {
+        for (String shareId : OWNER_INDEX.get(entry.getOwnerUuid())) {
+            if (SHARES.get(shareId) == entry) return shareId;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of shares owned by a specific player.
+     *
+     * @param owner the UUID of the player
+     * @return the number of shares owned by the player
+     */
+    public static int getPlayerShareCount(@NotNull UUID owner) {
+        return OWNER_INDEX.count(owner);
+    }
+
+    /**
+     * Gets the number of shares owned by a player that have not been cancelled or invalidated, in
+     * constant time. Shares past their expiry time count until the next purge sweep.
+     *
+     * @param owner the UUID of the player
+     * @return the number of live shares owned by the player
+     */
+    public static int getLivePlayerShareCount(@NotNull UUID owner) {
+        return LIVE_COUNTS.getOrDefault(owner, 0);
+    }
+
+    /**
+     * Gets the live share of a player that was created first. Only visits that player's shares.
+     *
+     * @param owner the UUID of the player
+     * @return the ID of the oldest live share, or null if the player has none
+     */
+    @Nullable
+    public static String getOldestLivePlayerShareId(@NotNull UUID owner) {
+        String oldestId = null;
+        long oldestTimestamp = Long.MAX_VALUE;
+        for (String shareId : OWNER_INDEX.get(owner)) {
+            ShareEntry entry = SHARES.get(shareId);
+            if (entry != null && !entry.getIsInvalid() && entry.getTimestamp() < oldestTimestamp) {
+                oldestId = shareId;
+                oldestTimestamp = entry.getTimestamp();
+            }
+        }
+        return oldestId;
     }
 
     /**
@@ -83,6 +313,40 @@ public final class ShareRepository {
         return getPlayerShares(player.getUuid().toString());
     }
 
+    /**
+     * Gets the shares explicitly sent to a player, newest first. Public shares are not included,
+     * nor are shares that are expired or cancelled but not yet purged.
+     *
+     * @param receiver the UUID of the receiving player
+     * @return the received shares by ID, in newest-first order
+     */
+    @NotNull
+    public static Map<String, ShareEntry> getReceivedShares(@NotNull UUID receiver) {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, ShareEntry>> received = new ArrayList<>();
+        for (String shareId : RECEIVER_INDEX.get(receiver)) {
+            ShareEntry entry = SHARES.get(shareId);
+            if (entry != null && !entry.getIsInvalid() && entry.getExpiresAt() > now) {
+                received.add(Map.entry(shareId, entry));
+            }
+        }
+        received.sort(Comparator.comparingLong((Map.Entry<String, ShareEntry> e) -> e.getValue().getTimestamp()).reversed());
+
+        Map<String, ShareEntry> result = new LinkedHashMap<>();
+        received.forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    /**
+     * Gets the number of shares explicitly sent to a player, including ones not yet purged.
+     *
+     * @param receiver the UUID of the receiving player
+     * @return the number of indexed received shares
+     */
+    public static int getReceivedShareCount(@NotNull UUID receiver) {
+        return RECEIVER_INDEX.count(receiver);
+    }
+
     /**
      * Removes all shares owned by a specific player.
      *
@@ -90,13 +354,134 @@ public final class ShareRepository {
      * @return the number of shares removed
      */
     public static int removePlayerShares(@NotNull String playerUuid) {
-        List<String> toRemove = SHARES.entrySet().stream()
-                .filter(entry -> entry.getValue().getOwnerUuid().toString().equals(playerUuid))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-        
-        toRemove.forEach(SHARES::remove);
-        return toRemove.size();
+        UUID owner = parseUuid(playerUuid);
+        if (owner == null) return 0;
+
+        return removeWhere(owner, entry -> true).affected();
+    }
+
+    /**
+     * Summary of a bulk operation.
+     *
+     * @param affected the number of shares the operation changed
+     * @param byType the changed shares per share type
+     * @param byOwner the changed shares per owner, before any transfer
+     */
+    public record BulkResult(int affected, @NotNull Map<ShowcaseManager.ShareType, Integer> byType,
+                             @NotNull Map<UUID, Integer> byOwner) {
+        public boolean isEmpty() {
+            return affected == 0;
+        }
+    }
+
+    private enum BulkOperation { EXPIRE, REMOVE, TRANSFER }
+
+    /**
+     * Invalidates every matching share that is not invalid yet, in a single pass.
+     *
+     * @param owner only consider this player's shares, or null for all shares
+     * @param filter selects the shares to invalidate
+     * @return what was invalidated
+     */
+    @NotNull
+    public static BulkResult expireWhere(@Nullable UUID owner, @NotNull Predicate<ShareEntry> filter) {
+        return bulk(owner, filter, BulkOperation.EXPIRE, null);
+    }
+
+    /**
+     * Removes every matching share, in a single pass.
+     *
+     * @param owner only consider this player's shares, or null for all shares
+     * @param filter selects the shares to remove
+     * @return what was removed
+     */
+    @NotNull
+    public static BulkResult removeWhere(@Nullable UUID owner, @NotNull Predicate<ShareEntry> filter) {
+        return bulk(owner, filter, BulkOperation.REMOVE, null);
+    }
+
+    /**
+     * Gives every matching share to another player, in a single pass. The shares keep their IDs,
+     * payloads, receivers, views and expiry.
+     *
+     * @param owner only consider this player's shares, or null for all shares
+     * @param filter selects the shares to transfer
+     * @param newOwner the player who will own the shares
+     * @return what was transferred, with the previous owners
+     */
+    @NotNull
+    public static BulkResult transferWhere(@Nullable UUID owner, @NotNull Predicate<ShareEntry> filter,
+                                           @NotNull UUID newOwner) {
+        return bulk(owner, filter.and(entry -> !entry.getOwnerUuid().equals(newOwner)), BulkOperation.TRANSFER, newOwner);
+    }
+
+    private static BulkResult bulk(@Nullable UUID owner, Predicate<ShareEntry> filter,
+                                   BulkOperation operation, @Nullable UUID newOwner) {
+        Collection<String> candidates = owner != null ? getPlayerShareIds(owner) : SHARES.keySet();
+        Map<ShowcaseManager.ShareType, Integer> byType = new EnumMap<>(ShowcaseManager.ShareType.class);
+        Map<UUID, Integer> byOwner = new HashMap<>();
+        int affected = 0;
+
+        for (String shareId : candidates) {
+            ShareEntry changed = switch (operation) {
+                case EXPIRE -> expireIf(shareId, filter);
+                case REMOVE -> removeIf(shareId, filter);
+                case TRANSFER -> transferIf(shareId, filter, newOwner);
+            };
+            if (changed == null) continue;
+
+            affected++;
+            byType.merge(changed.getType(), 1, Integer::sum);
+            byOwner.merge(changed.getOwnerUuid(), 1, Integer::sum);
+        }
+
+        if (affected > 0) MODIFICATIONS.addAndGet(affected);
+        return new BulkResult(affected, byType, byOwner);
+    }
+
+    private static ShareEntry expireIf(String shareId, Predicate<ShareEntry> filter) {
+        ShareEntry[] expired = new ShareEntry[1];
+        SHARES.computeIfPresent(shareId, (id, entry) -> {
+            if (filter.test(entry) && entry.invalidShare()) {
+                adjustLiveCount(entry.getOwnerUuid(), -1);
+                ShareJournal.recordInvalidate(id);
+                expired[0] = entry;
+            }
+            return entry;
+        });
+        if (expired[0] == null) return null;
+
+        EXPIRY_INDEX.expireNow(shareId);
+        return expired[0];
+    }
+
+    private static ShareEntry removeIf(String shareId, Predicate<ShareEntry> filter) {
+        ShareEntry[] removed = new ShareEntry[1];
+        SHARES.computeIfPresent(shareId, (id, entry) -> {
+            if (!filter.test(entry)) return entry;
+            unindex(id, entry);
+            ShareJournal.recordRemove(id);
+            removed[0] = entry;
+            return null;
+        });
+        return removed[0];
+    }
+
+    private static ShareEntry transferIf(String shareId, Predicate<ShareEntry> filter, UUID newOwner) {
+        // The copy shares the payload, spilled or not; the tier store keeps the spill record while
+        // the share stored under the ID still needs it
+        ShareEntry[] moved = new ShareEntry[1];
+        SHARES.computeIfPresent(shareId, (id, entry) -> {
+            if (!filter.test(entry)) return entry;
+            ShareEntry transferred = entry.withOwner(newOwner);
+            unindex(id, entry);
+            index(id, transferred);
+            ShareJournal.recordPut(id, transferred);
+            moved[0] = entry;
+            return transferred;
+        });
+
+        return moved[0];
     }
 
     /**
@@ -129,10 +514,24 @@ public final class ShareRepository {
     }
 
     /**
-     * Clears all shares.
+     * Gets the number of mutations applied since startup. Loading and clearing are not counted.
+     *
+     * @return the modification count
+     */
+    public static long getModificationCount() {
+        return MODIFICATIONS.get();
+    }
+
+    /**
+     * Clears all shares from memory. This is not journaled, persisted shares are kept.
      */
     public static void clear() {
         SHARES.clear();
+        OWNER_INDEX.clear();
+        RECEIVER_INDEX.clear();
+        EXPIRY_INDEX.clear();
+        LIVE_COUNTS.clear();
+        ShareTierStore.clear();
     }
 
     /**
@@ -141,10 +540,71 @@ public final class ShareRepository {
      * @param shares the shares to load
      */
     public static void loadShares(@Nullable Map<String, ShareEntry> shares) {
-        SHARES.clear();
+        clear();
         if (shares != null) {
             SHARES.putAll(shares);
+            SHARES.forEach(ShareRepository::index);
+            ShareTierStore.touchAll(shares);
+        }
+    }
+
+    private static void index(String shareId, ShareEntry entry) {
+        OWNER_INDEX.add(entry.getOwnerUuid(), shareId);
+        if (entry.getReceiverUuids() != null) {
+            entry.getReceiverUuids().forEach(receiver -> RECEIVER_INDEX.add(receiver, shareId));
         }
+        EXPIRY_INDEX.schedule(shareId, ShareExpiryIndex.deadlineOf(entry));
+        if (!entry.getIsInvalid()) adjustLiveCount(entry.getOwnerUuid(), 1);
+        ShareTierStore.touch(shareId, entry);
+    }
+
+    private static void unindex(String shareId, ShareEntry entry) {
+        OWNER_INDEX.remove(entry.getOwnerUuid(), shareId);
+        if (entry.getReceiverUuids() != null) {
+            entry.getReceiverUuids().forEach(receiver -> RECEIVER_INDEX.remove(receiver, shareId));
+        }
+        EXPIRY_INDEX.unschedule(shareId);
+        if (!entry.getIsInvalid()) adjustLiveCount(entry.getOwnerUuid(), -1);
+        ShareTierStore.forget(shareId);
+    }
+
+    private static void adjustLiveCount(UUID owner, int delta) {
+        LIVE_COUNTS.compute(owner, (key, count) -> {
+            int updated = (count != null ? count : 0) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+
+    /**
+     * Takes the IDs of shares that are expired or invalidated as of the given time. The shares
+     * themselves stay stored until removed.
+     *
+     * @param now the current time in epoch milliseconds
+     * @param limit the most IDs to take; the rest are returned by later calls
+     * @return the IDs of the due shares, earliest deadline first
+     */
+    @NotNull
+    public static List<String> pollExpired(long now, int limit) {
+        return EXPIRY_INDEX.pollDue(now, limit);
+    }
+
+    /**
+     * Sets the callback told about every expiry deadline that is set or moved, including
+     * {@link ShareExpiryIndex#IMMEDIATELY} for invalidated shares.
+     *
+     * @param listener receives the deadline in epoch milliseconds, or null to stop notifying
+     */
+    public static void setExpiryListener(@Nullable LongConsumer listener) {
+        EXPIRY_INDEX.setListener(listener);
+    }
+
+    /**
+     * Gets the time at which the next share expires.
+     *
+     * @return the earliest deadline in epoch milliseconds, or {@link Long#MAX_VALUE} if there is none
+     */
+    public static long getNextExpiry() {
+        return EXPIRY_INDEX.nextDeadline();
     }
 
     /**
@@ -156,4 +616,13 @@ public final class ShareRepository {
     public static Map<String, ShareEntry> getUnmodifiableShares() {
         return Collections.unmodifiableMap(SHARES);
     }
-}
\ No newline at end of file
+
+    @Nullable
+    private static UUID parseUuid(String playerUuid) {
+        try {
+            return UUID.fromString(playerUuid);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.showcase.data;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.Dynamic;
+import com.showcase.ShowcaseMod;
+import com.showcase.config.ModConfigManager;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.NbtSizeTracker;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.WorldSavePath;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds how many share payloads are held in memory.
+ * <p>
+ * Shares are tracked in least recently used order, where creating, loading and viewing a share
+ * counts as a use. Once more than the configured number are in memory, the payloads of the least
+ * recently used ones are written to a scratch {@link EmbeddedStore}, {@code showcase-spill.db}, and
+ * dropped from the heap. Share metadata always stays in memory. A spilled payload is read back the
+ * first time it is needed, which makes the share recently used again.
+ * <p>
+ * The spill file only mirrors data that is also in the regular share storage, so it is emptied on
+ * every start and deleted at shutdown.
+ * <p>
+ * A share snapshot being saved can still hold a share removed after it was taken, and encodes its
+ * payload straight from the spill file. Savers bracket the snapshot with {@link #beginSnapshot()}
+ * and {@link #endSnapshot(long)}, and the payload of a removed share is only deleted once every
+ * snapshot taken before the removal has been encoded.
+ */
+public final class ShareTierStore {
+    private static final String SPILL_FILE = "showcase-spill.db";
+    private static final String DATA_KEY = "data";
+
+    // Access-ordered, guarded by itself
+    private static final Map<String, ShareEntry> HOT = new LinkedHashMap<>(16, 0.75f, true);
+    // Share ID -> stamp of its removal
+    private static final Map<String, Long> PENDING_DELETES = new ConcurrentHashMap<>();
+    // Stamps of the snapshots still being encoded
+    private static final NavigableSet<Long> OPEN_SNAPSHOTS = new ConcurrentSkipListSet<>();
+    private static final AtomicLong clock = new AtomicLong();
+    private static final AtomicBoolean BUDGET_PASS_QUEUED = new AtomicBoolean();
+
+    private static volatile MinecraftServer server;
+    private static volatile EmbeddedStore store;
+    private static volatile Path storePath;
+
+    private static final AtomicLong spills = new AtomicLong();
+    private static final AtomicLong faults = new AtomicLong();
+
+    /**
+     * Snapshot of the tier counters.
+     *
+     * @param hotShares shares whose payload is in memory
+     * @param coldShares shares whose payload is in the spill file
+     * @param spillFileBytes current size of the spill file
+     * @param spills payloads moved to the spill file since startup
+     * @param faults spilled payloads read back since startup
+     */
+    public record Metrics(int hotShares, int coldShares, long spillFileBytes, long spills, long faults) {}
+
+    private ShareTierStore() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Creates an empty spill file in the server's world. Must run before shares are loaded.
+     *
+     * @param server the starting server
+     */
+    public static synchronized void open(@NotNull MinecraftServer server) {
+        ShareTierStore.server = server;
+        storePath = server.getSavePath(WorldSavePath.ROOT).resolve(DataStorage.DIR).resolve(SPILL_FILE);
+        try {
+            store = EmbeddedStore.openScratch(storePath);
+        } catch (IOException e) {
+            store = null;
+            ShowcaseMod.LOGGER.error("Failed to open share spill file {}, all shares stay in memory", storePath, e);
+        }
+    }
+
+    /**
+     * Closes and deletes the spill file. Must run after shares have been saved for the last time.
+     */
+    public static synchronized void close() {
+        EmbeddedStore open = store;
+        store = null;
+        server = null;
+        synchronized (HOT) {
+            HOT.clear();
+        }
+        PENDING_DELETES.clear();
+        OPEN_SNAPSHOTS.clear();
+        if (open == null) return;
+
+        try {
+            open.close();
+            Files.deleteIfExists(storePath);
+        } catch (IOException e) {
+            ShowcaseMod.LOGGER.warn("Failed to remove share spill file {}", storePath, e);
+        }
+    }
+
+    /**
+     * Marks a share as recently used.
+     *
+     * @param shareId the share ID
+     * @param entry the share
+     */
+    static void touch(@NotNull String shareId, @NotNull ShareEntry entry) {
+        synchronized (HOT) {
+            HOT.put(shareId, entry);
+        }
+    }
+
+    /**
+     * Marks loaded shares as used, oldest first, so the newest ones are the last to be spilled.
+     *
+     * @param shares the loaded shares
+     */
+    static void touchAll(@NotNull Map<String, ShareEntry> shares) {
+        List<Map.Entry<String, ShareEntry>> ordered = new ArrayList<>(shares.entrySet());
+        ordered.sort(Comparator.comparingLong(entry -> entry.getValue().getTimestamp()));
+        synchronized (HOT) {
+            ordered.forEach(entry -> HOT.put(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Stops tracking a removed share. Its spilled payload is deleted by a budget pass once every
+     * snapshot taken before now has been encoded, unless a share stored under the same ID by then
+     * still holds it.
+     *
+     * @param shareId the share ID
+     */
+    static void forget(@NotNull String shareId) {
+        synchronized (HOT) {
+            HOT.remove(shareId);
+        }
+        if (store != null) PENDING_DELETES.put(shareId, clock.incrementAndGet());
+    }
+
+    /**
+     * Keeps the spilled payloads of shares removed from now on until {@link #endSnapshot(long)}.
+     * Call before copying the shares to save.
+     *
+     * @return the snapshot stamp to pass to {@link #endSnapshot(long)}
+     */
+    public static long beginSnapshot() {
+        long stamp = clock.incrementAndGet();
+        OPEN_SNAPSHOTS.add(stamp);
+        return stamp;
+    }
+
+    /**
+     * Marks a snapshot as encoded, so payloads it may have read can be deleted.
+     *
+     * @param stamp the stamp returned by {@link #beginSnapshot()}
+     */
+    public static void endSnapshot(long stamp) {
+        OPEN_SNAPSHOTS.remove(stamp);
+    }
+
+    static void clear() {
+        synchronized (HOT) {
+            HOT.clear();
+        }
+    }
+
+    /**
+     * Queues a budget pass on the {@link IoExecutor} unless one is already queued or running.
+     * Called by the housekeeping timer, which must not wait for spill writes.
+     */
+    public static void requestBudgetPass() {
+        if (store == null || !BUDGET_PASS_QUEUED.compareAndSet(false, true)) return;
+        Path path = storePath;
+
+        IoExecutor.submit(path, () -> {
+            try {
+                enforceBudget();
+            } finally {
+                BUDGET_PASS_QUEUED.set(false);
+            }
+        });
+    }
+
+    /**
+     * Spills the least recently used payloads until the configured number of shares is in memory,
+     * and deletes the spilled payloads of removed shares.
+     */
+    public static void enforceBudget() {
+        EmbeddedStore open = store;
+        if (open == null) return;
+
+        deletePending(open);
+
+        int limit = ModConfigManager.getHotShareLimit();
+        if (limit <= 0) return;
+
+        Map<String, ShareEntry> victims = new LinkedHashMap<>();
+        synchronized (HOT) {
+            Iterator<Map.Entry<String, ShareEntry>> iterator = HOT.entrySet().iterator();
+            while (HOT.size() > limit && iterator.hasNext()) {
+                Map.Entry<String, ShareEntry> eldest = iterator.next();
+                victims.put(eldest.getKey(), eldest.getValue());
+                iterator.remove();
+            }
+        }
+
+        for (Map.Entry<String, ShareEntry> victim : victims.entrySet()) {
+            if (ShareRepository.get(victim.getKey()) != victim.getValue()) continue;
+            if (victim.getValue().spillPayload(victim.getKey())) {
+                spills.incrementAndGet();
+            }
+        }
+    }
+
+    private static void deletePending(EmbeddedStore open) {
+        if (PENDING_DELETES.isEmpty()) return;
+
+        // Removals after the oldest unfinished snapshot have to wait for it
+        Long oldestSnapshot = OPEN_SNAPSHOTS.isEmpty() ? null : OPEN_SNAPSHOTS.first();
+        List<String> deletes = new ArrayList<>();
+        for (Map.Entry<String, Long> pending : PENDING_DELETES.entrySet()) {
+            if (oldestSnapshot != null && pending.getValue() > oldestSnapshot) continue;
+            if (PENDING_DELETES.remove(pending.getKey(), pending.getValue())) deletes.add(pending.getKey());
+        }
+        // A share stored again under the same ID, such as a transferred one, can hold the same
+        // spilled payload. Only budget passes spill, so this check cannot race with a new spill.
+        deletes.removeIf(shareId -> {
+            ShareEntry current = ShareRepository.get(shareId);
+            return current != null && current.isPayloadSpilled();
+        });
+        if (deletes.isEmpty()) return;
+
+        try {
+            open.commit(Map.of(), deletes);
+        } catch (IOException e) {
+            ShowcaseMod.LOGGER.warn("Failed to delete {} spilled share payloads", deletes.size(), e);
+        }
+    }
+
+    /**
+     * Writes a payload to the spill file.
+     *
+     * @param key the share ID
+     * @param payload the payload tree
+     * @return true if the payload was written
+     */
+    static boolean write(@NotNull String key, @NotNull NbtElement payload) {
+        EmbeddedStore open = store;
+        if (open == null) return false;
+
+        try {
+            NbtCompound root = new NbtCompound();
+            root.put(DATA_KEY, payload);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            NbtIo.write(root, new DataOutputStream(bytes));
+
+            open.commit(Map.of(key, bytes.toByteArray()), List.of());
+            PENDING_DELETES.remove(key);
+            return true;
+        } catch (IOException e) {
+            ShowcaseMod.LOGGER.warn("Failed to spill share payload {}, keeping it in memory", key, e);
+            return false;
+        }
+    }
+
+    /**
+     * Reads a spilled payload.
+     *
+     * @param key the share ID
+     * @return the payload tree with registry-aware ops, or null if it is missing or unreadable
+     */
+    @Nullable
+    static Dynamic<NbtElement> read(@NotNull String key) {
+        EmbeddedStore open = store;
+        MinecraftServer current = server;
+        if (open == null || current == null) return null;
+
+        try {
+            byte[] content = open.get(key);
+            if (content == null) return null;
+
+            NbtCompound root = NbtIo.readCompound(new DataInputStream(new ByteArrayInputStream(content)),
+                    NbtSizeTracker.ofUnlimitedBytes());
+            NbtElement payload = root.get(DATA_KEY);
+            return payload != null ? new Dynamic<>(current.getRegistryManager().getOps(NbtOps.INSTANCE), payload) : null;
+        } catch (IOException e) {
+            ShowcaseMod.LOGGER.error("Failed to read spilled share payload {}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the payload of a share. A spilled payload is read back on the {@link IoExecutor}, so
+     * the caller never waits for the spill file.
+     *
+     * @param entry the share
+     * @return completes with true if the payload could be loaded; already complete unless the
+     * payload was spilled
+     */
+    @NotNull
+    public static CompletableFuture<Boolean> loadPayload(@NotNull ShareEntry entry) {
+        Path path = storePath;
+        if (store == null || path == null || !entry.isPayloadSpilled()) {
+            return CompletableFuture.completedFuture(entry.loadPayload());
+        }
+        return IoExecutor.supply(path, entry::loadPayload).exceptionally(error -> false);
+    }
+
+    /**
+     * Encodes a decoded payload for spilling.
+     *
+     * @return the payload tree, or null if there is no server or encoding failed
+     */
+    @Nullable
+    static <T> NbtElement encode(@NotNull Codec<T> codec, @NotNull T value) {
+        MinecraftServer current = server;
+        if (current == null) return null;
+        return codec.encodeStart(current.getRegistryManager().getOps(NbtOps.INSTANCE), value).result().orElse(null);
+    }
+
+    /**
+     * Records that a spilled payload was read back into memory.
+     *
+     * @param shareId the share ID
+     */
+    static void faultedIn(@NotNull String shareId) {
+        faults.incrementAndGet();
+        // The payload is in memory again, so no snapshot needs the spilled copy any more
+        PENDING_DELETES.put(shareId, 0L);
+        ShareEntry entry = ShareRepository.get(shareId);
+        if (entry != null) touch(shareId, entry);
+    }
+
+    public static Metrics getMetrics() {
+        EmbeddedStore open = store;
+        int hot;
+        synchronized (HOT) {
+            hot = HOT.size();
+        }
+        int cold = open != null ? Math.max(0, open.keyCount() - PENDING_DELETES.size()) : 0;
+        return new Metrics(hot, cold, open != null ? open.fileSize() : 0, spills.get(), faults.get());
+    }
+}
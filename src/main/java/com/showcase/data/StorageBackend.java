@@ -0,0 +1,36 @@
+package com.showcase.data;
+
+import com.mojang.serialization.Codec;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Creates the {@link DataStorage} instances that shares and statistics are persisted through.
+ * <p>
+ * A backend decides where and how each storage's data lives; callers only see the
+ * {@link DataStorage} contract. The backend in use is chosen by the storage format setting,
+ * see {@link StorageBackends}.
+ */
+public interface StorageBackend {
+    /**
+     * @return the backend name shown in logs and status output
+     */
+    @NotNull
+    String name();
+
+    /**
+     * Creates a storage for one data set.
+     *
+     * @param path the storage name, unique within the backend, may contain '/' to group storages
+     * @param codec the data codec
+     * @param streaming the map inside the data that may be read and written entry by entry, or null
+     * @return the storage
+     */
+    @NotNull
+    <T> DataStorage<T> create(@NotNull String path, @NotNull Codec<T> codec, @Nullable StreamingMap<T, ?> streaming);
+
+    /**
+     * Releases any open resources. Called once all writes have been flushed at shutdown.
+     */
+    default void close() {}
+}
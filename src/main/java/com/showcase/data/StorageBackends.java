@@ -0,0 +1,74 @@
+package com.showcase.data;
+
+import com.mojang.serialization.Codec;
+import com.showcase.config.ModConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The built-in {@link StorageBackend} implementations.
+ */
+public final class StorageBackends {
+    /**
+     * One JSON file per storage. The default.
+     */
+    public static final StorageBackend JSON = new StorageBackend() {
+        @Override
+        public @NotNull String name() {
+            return "json";
+        }
+
+        @Override
+        public <T> @NotNull DataStorage<T> create(@NotNull String path, @NotNull Codec<T> codec,
+                                                  @Nullable StreamingMap<T, ?> streaming) {
+            return new JsonCodecDataStorage<>(path, codec, streaming);
+        }
+    };
+
+    /**
+     * One gzip-compressed NBT file per storage.
+     */
+    public static final StorageBackend NBT = new StorageBackend() {
+        @Override
+        public @NotNull String name() {
+            return "nbt";
+        }
+
+        @Override
+        public <T> @NotNull DataStorage<T> create(@NotNull String path, @NotNull Codec<T> codec,
+                                                  @Nullable StreamingMap<T, ?> streaming) {
+            return new NbtCodecDataStorage<>(path, codec, streaming);
+        }
+    };
+
+    /**
+     * All storages in a single transactional key-value file.
+     */
+    public static final EmbeddedStorageBackend EMBEDDED = new EmbeddedStorageBackend();
+
+    private StorageBackends() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * @param format the configured storage format
+     * @return the backend implementing it
+     */
+    @NotNull
+    public static StorageBackend forFormat(@NotNull ModConfig.StorageSettings.Format format) {
+        return switch (format) {
+            case JSON -> JSON;
+            case NBT -> NBT;
+            case EMBEDDED -> EMBEDDED;
+        };
+    }
+
+    /**
+     * Closes every backend that holds open resources.
+     */
+    public static void closeAll() {
+        JSON.close();
+        NBT.close();
+        EMBEDDED.close();
+    }
+}
@@ -0,0 +1,49 @@
+package com.showcase.data;
+
+import com.mojang.serialization.Codec;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Describes a string-keyed map inside a JSON storage that can be decoded one entry at a time.
+ * <p>
+ * The map is either the whole file or one top-level field of it. The remaining fields are decoded
+ * with the storage codec as usual, with the map field left empty, and the streamed entries are
+ * merged back in afterward.
+ *
+ * @param field the top-level field holding the map, or null if the file itself is the map
+ * @param valueCodec the codec for a single map value
+ * @param merge combines the decoded remainder with the streamed entries
+ * @param <T> the stored data type
+ * @param <V> the map value type
+ */
+public record StreamingMap<T, V>(@Nullable String field,
+                                 @NotNull Codec<V> valueCodec,
+                                 @NotNull BiFunction<T, Map<String, V>, T> merge) {
+
+    /**
+     * Streams a storage whose whole file is a map.
+     *
+     * @param valueCodec the codec for a single map value
+     * @return the streaming descriptor
+     */
+    public static <V> StreamingMap<Map<String, V>, V> root(@NotNull Codec<V> valueCodec) {
+        return new StreamingMap<>(null, valueCodec, (ignored, entries) -> entries);
+    }
+
+    /**
+     * Streams one top-level map field of a storage.
+     *
+     * @param field the field name
+     * @param valueCodec the codec for a single map value
+     * @param merge returns a copy of the decoded data with the map field replaced by the entries
+     * @return the streaming descriptor
+     */
+    public static <T, V> StreamingMap<T, V> field(@NotNull String field, @NotNull Codec<V> valueCodec,
+                                                  @NotNull BiFunction<T, Map<String, V>, T> merge) {
+        return new StreamingMap<>(field, valueCodec, merge);
+    }
+}
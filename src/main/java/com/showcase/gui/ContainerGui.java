@@ -3,6 +3,7 @@ package com.showcase.gui;
 import com.showcase.utils.BookOpener;
 import com.showcase.utils.MapViewer;
 import com.showcase.utils.StackUtils;
+import com.showcase.utils.TickWorkScheduler;
 import eu.pb4.sgui.api.ClickType;
 import eu.pb4.sgui.api.GuiHelpers;
 import eu.pb4.sgui.api.elements.GuiElement;
@@ -154,11 +155,15 @@ public class ContainerGui extends SimpleGui {
     private void handleItemClick(int i, ClickType clickType, SlotActionType slotActionType, SlotGuiInterface slotGuiInterface) {}
 
     private void onShulkerBoxClick(ItemStack stack, ContainerGui gui) {
-        gui.openNestedContainer(stack, getShulkerBoxContents(stack), getShulkerBoxContainerType());
+        TickWorkScheduler.post(() -> {
+            if (gui.isOpen()) gui.openNestedContainer(stack, getShulkerBoxContents(stack), getShulkerBoxContainerType());
+        });
     }
 
     private void onBundleClick(ItemStack stack, ContainerGui gui) {
-        gui.openNestedContainer(stack, getBundleContents(stack), getBundleContainerType());
+        TickWorkScheduler.post(() -> {
+            if (gui.isOpen()) gui.openNestedContainer(stack, getBundleContents(stack), getBundleContainerType());
+        });
     }
 
     private void onBookClick(ItemStack stack, ServerPlayerEntity player) {
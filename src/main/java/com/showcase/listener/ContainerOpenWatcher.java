@@ -4,7 +4,8 @@ import com.showcase.gui.MerchantContext;
 import com.showcase.utils.ContainerTitleResolver;
 import com.showcase.utils.ReadOnlyInventory;
 import com.showcase.utils.TextUtils;
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import com.showcase.utils.TickScheduler;
+import com.showcase.utils.TickWorkScheduler;
 import net.minecraft.inventory.Inventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.screen.*;
@@ -33,24 +34,22 @@ public class ContainerOpenWatcher {
     private static class WatchContainer {
         ContainerCallback onSuccess;
         Runnable onTimeout;
-        int ticksLeft;
+        TickScheduler.Timer timeout;
 
-        WatchContainer(ContainerCallback onSuccess, Runnable onTimeout, int ticksLeft) {
+        WatchContainer(ContainerCallback onSuccess, Runnable onTimeout) {
             this.onSuccess = onSuccess;
             this.onTimeout = onTimeout;
-            this.ticksLeft = ticksLeft * 20;
         }
     }
 
     private static class WatchMerchant {
         MerchantGuiCallback onSuccess;
         Runnable onTimeout;
-        int ticksLeft;
+        TickScheduler.Timer timeout;
 
-        WatchMerchant(MerchantGuiCallback onSuccess, Runnable onTimeout, int ticksLeft) {
+        WatchMerchant(MerchantGuiCallback onSuccess, Runnable onTimeout) {
             this.onSuccess = onSuccess;
             this.onTimeout = onTimeout;
-            this.ticksLeft = ticksLeft * 20;
         }
     }
 
@@ -58,14 +57,28 @@ public class ContainerOpenWatcher {
                                               MerchantGuiCallback onSuccess, Runnable onTimeout) {
         if (player == null) return;
 
-        watchMerchantPending.put(player.getUuid(), new WatchMerchant(onSuccess, onTimeout, duration));
+        UUID playerId = player.getUuid();
+        WatchMerchant watch = new WatchMerchant(onSuccess, onTimeout);
+        watch.timeout = TickScheduler.schedule(duration * 20, () -> {
+            if (watchMerchantPending.remove(playerId, watch) && watch.onTimeout != null) TickWorkScheduler.post(watch.onTimeout);
+        });
+
+        WatchMerchant previous = watchMerchantPending.put(playerId, watch);
+        if (previous != null) previous.timeout.cancel();
     }
 
     public static void awaitContainerOpened(ServerPlayerEntity player, int duration,
                                             ContainerCallback onSuccess, Runnable onTimeout) {
         if (player == null) return;
 
-        watchContainerPending.put(player.getUuid(), new WatchContainer(onSuccess, onTimeout, duration));
+        UUID playerId = player.getUuid();
+        WatchContainer watch = new WatchContainer(onSuccess, onTimeout);
+        watch.timeout = TickScheduler.schedule(duration * 20, () -> {
+            if (watchContainerPending.remove(playerId, watch) && watch.onTimeout != null) TickWorkScheduler.post(watch.onTimeout);
+        });
+
+        WatchContainer previous = watchContainerPending.put(playerId, watch);
+        if (previous != null) previous.timeout.cancel();
     }
 
     public static void onMerchantGuiOpened(ServerPlayerEntity player, NamedScreenHandlerFactory factory) {
@@ -73,9 +86,11 @@ public class ContainerOpenWatcher {
 
         UUID playerId = player.getUuid();
         WatchMerchant entry = watchMerchantPending.remove(playerId);
-        ScreenHandler handler = player.currentScreenHandler;
+        if (entry == null) return;
+        entry.timeout.cancel();
 
-        if (handler == null || entry == null) return;
+        ScreenHandler handler = player.currentScreenHandler;
+        if (handler == null) return;
 
         MerchantContext merchantContext = getMerchantContext(handler, ContainerTitleResolver.resolveContainerTitle(player, handler, factory));
 
@@ -112,6 +127,7 @@ public class ContainerOpenWatcher {
         UUID playerId = player.getUuid();
         WatchContainer entry = watchContainerPending.remove(playerId);
         if (entry == null) return;
+        entry.timeout.cancel();
 
         ScreenHandler handler = player.currentScreenHandler;
         if (handler == null) {
@@ -175,33 +191,9 @@ public class ContainerOpenWatcher {
         return ContainerTitleResolver.resolveContainerTitle(factory);
     }
 
-    public static void registerTickEvent() {
-        ServerTickEvents.START_SERVER_TICK.register(server -> {
-            Iterator<Map.Entry<UUID, WatchContainer>> containerIter = watchContainerPending.entrySet().iterator();
-            while (containerIter.hasNext()) {
-                Map.Entry<UUID, WatchContainer> entry = containerIter.next();
-                WatchContainer wc = entry.getValue();
-                wc.ticksLeft--;
-                if (wc.ticksLeft <= 0) {
-                    containerIter.remove();
-                    if (wc.onTimeout != null) wc.onTimeout.run();
-                }
-            }
-
-            Iterator<Map.Entry<UUID, WatchMerchant>> merchantIter = watchMerchantPending.entrySet().iterator();
-            while (merchantIter.hasNext()) {
-                Map.Entry<UUID, WatchMerchant> entry = merchantIter.next();
-                WatchMerchant wm = entry.getValue();
-                wm.ticksLeft--;
-                if (wm.ticksLeft <= 0) {
-                    merchantIter.remove();
-                    if (wm.onTimeout != null) wm.onTimeout.run();
-                }
-            }
-        });
-    }
-
     public static void cleanup() {
+        watchContainerPending.values().forEach(watch -> watch.timeout.cancel());
+        watchMerchantPending.values().forEach(watch -> watch.timeout.cancel());
         watchContainerPending.clear();
         watchMerchantPending.clear();
     }
@@ -2,11 +2,17 @@ package com.showcase.placeholders;
 
 import com.showcase.ShowcaseMod;
 import com.showcase.command.ShowcaseManager;
+import com.showcase.config.ModConfigManager;
 import com.showcase.data.GlobalDataManager;
-import com.showcase.data.JsonCodecDataStorage;
+import com.showcase.data.DataStorage;
+import com.showcase.data.IoExecutor;
 import com.showcase.data.PlayerStatisticsData;
+import com.showcase.data.PlayerStatisticsStore;
 import com.showcase.data.ServerStatisticsData;
+import com.showcase.data.ShareRepository;
+import com.showcase.data.StreamingMap;
 import com.showcase.utils.StatisticsCache;
+import com.showcase.utils.TickWorkScheduler;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
@@ -16,6 +22,8 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -29,8 +37,8 @@ public class ShowcaseStatistics {
 
     // Storage identifiers
     public static final Identifier STATISTICS_STORAGE_ID = Identifier.of("showcase", "statistics");
-    public static final JsonCodecDataStorage<ServerStatisticsData> STATISTICS_STORAGE =
-            new JsonCodecDataStorage<>("showcase_statistics", ServerStatisticsData.CODEC);
+    // Created in initialize once the configured storage format is known
+    private static DataStorage<ServerStatisticsData> STATISTICS_STORAGE;
 
     // Server instance reference for data persistence
     private static MinecraftServer currentServer;
@@ -38,8 +46,10 @@ public class ShowcaseStatistics {
     // Cache service
     private static final StatisticsCache cache = new StatisticsCache();
 
-    // Player-specific statistics
+    // Player-specific statistics, loaded from PlayerStatisticsStore on first access
     private static final Map<String, PlayerStats> playerStatistics = new ConcurrentHashMap<>();
+    private static final Set<String> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger trackedPlayers = new AtomicInteger(0);
 
     // Server-wide statistics
     private static final AtomicInteger totalActiveShares = new AtomicInteger(0);
@@ -89,9 +99,7 @@ public class ShowcaseStatistics {
     public static int getActiveShareCount(ServerPlayerEntity player) {
         if (player == null) return 0;
 
-        return (int) ShowcaseManager.getUnmodifiableActiveShares().values().stream()
-            .filter(entry -> entry.getOwnerUuid().equals(player.getUuid()))
-            .count();
+        return ShareRepository.getPlayerShareCount(player.getUuid());
     }
 
     /**
@@ -334,7 +342,14 @@ public class ShowcaseStatistics {
      */
     private static PlayerStats getPlayerStats(ServerPlayerEntity player) {
         String uuid = player.getUuidAsString();
-        return playerStatistics.computeIfAbsent(uuid, k -> new PlayerStats());
+        PlayerStats stats = playerStatistics.get(uuid);
+        if (stats != null) return stats;
+
+        // Loaded outside the map, since reading the player's shard may hit the disk
+        PlayerStatisticsData stored = currentServer != null ? PlayerStatisticsStore.get(currentServer, uuid) : null;
+        PlayerStats loaded = stored != null ? fromData(stored) : new PlayerStats();
+        PlayerStats existing = playerStatistics.putIfAbsent(uuid, loaded);
+        return existing != null ? existing : loaded;
     }
 
     // Event handlers (to be called when shares are created/viewed)
@@ -376,6 +391,7 @@ public class ShowcaseStatistics {
 
         // Clear relevant cache entries
         clearCacheForPlayer(uuid);
+        dirtyPlayers.add(uuid);
 
         // Trigger periodic save
         scheduleAsyncSave();
@@ -393,6 +409,7 @@ public class ShowcaseStatistics {
 
         // Clear cache
         clearCacheForPlayer(creator.getUuidAsString());
+        dirtyPlayers.add(creator.getUuidAsString());
 
         // Trigger periodic save
         scheduleAsyncSave();
@@ -416,6 +433,20 @@ public class ShowcaseStatistics {
         scheduleAsyncSave();
     }
 
+    /**
+     * Record a bulk expiry, removal or transfer, clearing the cache of every affected player at once
+     */
+    public static void recordBulkChange(Collection<UUID> players) {
+        if (players.isEmpty()) return;
+
+        List<String> uuids = players.stream().map(UUID::toString).toList();
+        uuids.forEach(ShowcaseStatistics::updateNextExpiryTime);
+        cache.removePatterns(uuids);
+
+        // Trigger periodic save
+        scheduleAsyncSave();
+    }
+
     /**
      * Update most shared type for a player
      */
@@ -448,6 +479,8 @@ public class ShowcaseStatistics {
      */
     public static void initialize() {
         // Register storage with GlobalDataManager
+        STATISTICS_STORAGE = DataStorage.of("showcase_statistics", ServerStatisticsData.CODEC, ModConfigManager.getStorageFormat(),
+                StreamingMap.field("playerStatistics", PlayerStatisticsData.CODEC, ServerStatisticsData::withPlayerStatistics));
         GlobalDataManager.register(STATISTICS_STORAGE_ID, STATISTICS_STORAGE);
         ShowcaseMod.LOGGER.info("Registered statistics storage system");
 
@@ -488,28 +521,19 @@ public class ShowcaseStatistics {
                 data.shareTypeGlobalStats().forEach((key, value) ->
                     shareTypeGlobalStats.put(key, new AtomicInteger(value)));
 
-                // Restore player statistics
+                trackedPlayers.set(data.trackedPlayers());
+
+                // Player statistics are loaded per shard on demand
                 playerStatistics.clear();
-                data.playerStatistics().forEach((uuid, playerData) -> {
-                    PlayerStats stats = new PlayerStats();
-                    stats.totalShares.set(playerData.totalShares());
-                    stats.totalViews.set(playerData.totalViews());
-
-                    // Restore shares by type
-                    playerData.sharesByType().forEach((type, count) ->
-                        stats.sharesByType.get(type).set(count));
-
-                    // Restore other player data
-                    stats.sharesPerDay.putAll(playerData.sharesPerDay());
-                    stats.shareDurations.addAll(playerData.getShareDurations());
-                    stats.mostSharedType = playerData.mostSharedType();
-                    stats.lastShareTime = playerData.getLastShareTimeInstant();
-
-                    playerStatistics.put(uuid, stats);
-                });
-
-                ShowcaseMod.LOGGER.info("Loaded statistics for {} players from storage",
-                    data.playerStatistics().size());
+                dirtyPlayers.clear();
+                PlayerStatisticsStore.clear();
+
+                if (!data.playerStatistics().isEmpty()) {
+                    // Statistics file from before sharding, move players out and rewrite it without them
+                    PlayerStatisticsStore.importLegacy(currentServer, data.playerStatistics());
+                    trackedPlayers.set(data.playerStatistics().size());
+                    saveStatistics();
+                }
             } else {
                 ShowcaseMod.LOGGER.debug("No statistics found in storage, starting fresh");
             }
@@ -535,49 +559,99 @@ public class ShowcaseStatistics {
             return;
         }
 
+        collectDirtyPlayers();
+        writeStatistics();
+    }
+
+    /**
+     * Converts players changed since the last save into immutable records. Runs on the server
+     * thread, which is the only writer of player stats.
+     */
+    private static void collectDirtyPlayers() {
+        if (currentServer == null) return;
+
+        try {
+            // Only players changed since the last save are converted and only their shards rewritten
+            for (String uuid : dirtyPlayers) {
+                dirtyPlayers.remove(uuid);
+                PlayerStats stats = playerStatistics.get(uuid);
+                if (stats != null && PlayerStatisticsStore.put(currentServer, uuid, toData(stats))) {
+                    trackedPlayers.incrementAndGet();
+                }
+            }
+        } catch (Exception e) {
+            ShowcaseMod.LOGGER.error("Failed to collect changed player statistics", e);
+        }
+    }
+
+    /**
+     * Encodes and writes the collected records and the server-wide counters. Only reads immutable
+     * records and atomics, so it can run on any thread.
+     */
+    private static void writeStatistics() {
+        MinecraftServer server = currentServer;
+        if (server == null) return;
+
         try {
-            // Convert internal data to serializable format
+            int shards = PlayerStatisticsStore.flush(server);
+
             Map<String, Integer> globalStats = new HashMap<>();
             shareTypeGlobalStats.forEach((key, value) -> globalStats.put(key, value.get()));
 
-            Map<String, PlayerStatisticsData> playerData = new HashMap<>();
-            playerStatistics.forEach((uuid, stats) -> {
-                // Convert shares by type
-                Map<ShowcaseManager.ShareType, Integer> sharesByType = new HashMap<>();
-                stats.sharesByType.forEach((type, count) -> sharesByType.put(type, count.get()));
-
-                // Convert share durations to seconds
-                List<Long> durationSeconds = stats.shareDurations.stream()
-                    .map(Duration::getSeconds)
-                    .toList();
-
-                PlayerStatisticsData data = new PlayerStatisticsData(
-                    stats.totalShares.get(),
-                    stats.totalViews.get(),
-                    sharesByType,
-                    new HashMap<>(stats.sharesPerDay),
-                    durationSeconds,
-                    stats.mostSharedType,
-                    stats.lastShareTime != null ? stats.lastShareTime.toEpochMilli() : null
-                );
-                playerData.put(uuid, data);
-            });
-
             ServerStatisticsData data = new ServerStatisticsData(
                 totalViewsEver.get(),
                 globalStats,
                 cache.getHits(),
                 cache.getMisses(),
-                playerData
+                Map.of(),
+                trackedPlayers.get()
             );
 
-            GlobalDataManager.setData(currentServer, STATISTICS_STORAGE_ID, data);
-            ShowcaseMod.LOGGER.debug("Statistics saved to persistent storage");
+            GlobalDataManager.setData(server, STATISTICS_STORAGE_ID, data);
+            ShowcaseMod.LOGGER.debug("Statistics saved to persistent storage ({} player shards written)", shards);
         } catch (Exception e) {
             ShowcaseMod.LOGGER.error("Failed to save statistics to storage", e);
         }
     }
 
+    private static PlayerStatisticsData toData(PlayerStats stats) {
+        // Convert shares by type
+        Map<ShowcaseManager.ShareType, Integer> sharesByType = new HashMap<>();
+        stats.sharesByType.forEach((type, count) -> sharesByType.put(type, count.get()));
+
+        // Convert share durations to seconds
+        List<Long> durationSeconds = stats.shareDurations.stream()
+            .map(Duration::getSeconds)
+            .toList();
+
+        return new PlayerStatisticsData(
+            stats.totalShares.get(),
+            stats.totalViews.get(),
+            sharesByType,
+            new HashMap<>(stats.sharesPerDay),
+            durationSeconds,
+            stats.mostSharedType,
+            stats.lastShareTime != null ? stats.lastShareTime.toEpochMilli() : null
+        );
+    }
+
+    private static PlayerStats fromData(PlayerStatisticsData playerData) {
+        PlayerStats stats = new PlayerStats();
+        stats.totalShares.set(playerData.totalShares());
+        stats.totalViews.set(playerData.totalViews());
+
+        // Restore shares by type
+        playerData.sharesByType().forEach((type, count) ->
+            stats.sharesByType.get(type).set(count));
+
+        // Restore other player data
+        stats.sharesPerDay.putAll(playerData.sharesPerDay());
+        stats.shareDurations.addAll(playerData.getShareDurations());
+        stats.mostSharedType = playerData.mostSharedType();
+        stats.lastShareTime = playerData.getLastShareTimeInstant();
+        return stats;
+    }
+
     // Save debouncing
     private static volatile long lastSaveRequest = 0;
     private static final long SAVE_DEBOUNCE_MS = 5000; // 5 seconds
@@ -594,7 +668,7 @@ public class ShowcaseStatistics {
 
     /**
      * Schedule asynchronous save with debouncing to avoid excessive saves.
-     * Uses ShowcaseManager's scheduler instead of creating new threads.
+     * The debounce runs on ShowcaseManager's housekeeping timer and the write on the I/O executor.
      */
     public static void scheduleAsyncSave() {
         long now = System.currentTimeMillis();
@@ -605,17 +679,30 @@ public class ShowcaseStatistics {
             pendingSaveTask.cancel(false);
         }
 
-        // Schedule save using ShowcaseManager's existing scheduler
-        pendingSaveTask = ShowcaseManager.getScheduler().schedule(() -> {
-            try {
-                // Only save if no new save requests came in during debounce period
-                if (System.currentTimeMillis() - lastSaveRequest >= SAVE_DEBOUNCE_MS) {
-                    saveStatistics();
+        ScheduledExecutorService scheduler = ShowcaseManager.getScheduler();
+        if (scheduler == null) return;
+
+        try {
+            pendingSaveTask = scheduler.schedule(() -> {
+                try {
+                    // Only save if no new save requests came in during debounce period. Player stats
+                    // are only read on the server thread that writes them; encoding happens on the I/O executor
+                    if (System.currentTimeMillis() - lastSaveRequest >= SAVE_DEBOUNCE_MS) {
+                        TickWorkScheduler.post(() -> {
+                            collectDirtyPlayers();
+                            MinecraftServer server = currentServer;
+                            if (server != null) {
+                                IoExecutor.submit(STATISTICS_STORAGE.getFilePath(server), ShowcaseStatistics::writeStatistics);
+                            }
+                        });
+                    }
+                } catch (Exception e) {
+                    ShowcaseMod.LOGGER.error("Error during scheduled statistics save", e);
                 }
-            } catch (Exception e) {
-                ShowcaseMod.LOGGER.error("Error during scheduled statistics save", e);
-            }
-        }, SAVE_DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+            }, SAVE_DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down, the final save writes everything
+        }
     }
 
     /**
@@ -626,7 +713,7 @@ public class ShowcaseStatistics {
         stats.put("totalActiveShares", getTotalActiveShares());
         stats.put("totalViewsEver", totalViewsEver.get());
         stats.put("shareTypeStats", new HashMap<>(shareTypeGlobalStats));
-        stats.put("totalPlayers", playerStatistics.size());
+        stats.put("totalPlayers", trackedPlayers.get());
         return stats;
     }
 
@@ -7,6 +7,6 @@ public class HotbarSnapshotInventory extends ReadOnlyInventory {
     public HotbarSnapshotInventory(PlayerInventory playerInv) {
         super(9, TextUtils.HOTBAR, ScreenHandlerType.GENERIC_9X1);
 
-        for (int i = 0; i < 9; i++) setStack(i, playerInv.getStack(i).copy());
+        for (int i = 0; i < 9; i++) setStack(i, playerInv.getStack(i));
     }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.showcase.utils;
+
+import net.minecraft.item.ItemStack;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Interns the stacks held by share snapshots, so identical stacks across all shares are one
+ * instance in memory.
+ * <p>
+ * Stacks are matched by content: item, components and count. The pool only holds weak references,
+ * so a pooled stack is dropped once the last share holding it has expired and been purged.
+ * <p>
+ * Pooled stacks are shared and must never be mutated; every consumer copies a snapshot stack
+ * before changing or displaying it.
+ */
+public final class ItemStackPool {
+    private static final Map<Integer, List<PooledStack>> BUCKETS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ItemStack> CLEARED = new ReferenceQueue<>();
+    private static final AtomicLong lookups = new AtomicLong();
+    private static final AtomicLong hits = new AtomicLong();
+
+    /**
+     * @param pooledStacks stacks currently in the pool
+     * @param lookups stacks interned since startup
+     * @param hits lookups answered with an already pooled stack
+     */
+    public record Metrics(int pooledStacks, long lookups, long hits) {
+        public double hitRatio() {
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private static final class PooledStack extends WeakReference<ItemStack> {
+        private final int hash;
+
+        private PooledStack(ItemStack stack, int hash) {
+            super(stack, CLEARED);
+            this.hash = hash;
+        }
+    }
+
+    private ItemStackPool() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Returns the pooled stack equal to the given one, adding a copy of it if there is none.
+     * The given stack is never retained, so a live stack can be passed without copying it first.
+     *
+     * @param stack the stack to intern
+     * @return a shared stack with the same content, which must not be mutated
+     */
+    public static ItemStack intern(ItemStack stack) {
+        if (stack == null || stack.isEmpty()) return ItemStack.EMPTY;
+
+        expungeCleared();
+        lookups.incrementAndGet();
+
+        int hash = contentHash(stack);
+        ItemStack[] result = new ItemStack[1];
+        BUCKETS.compute(hash, (key, bucket) -> {
+            if (bucket != null) {
+                for (PooledStack pooled : bucket) {
+                    ItemStack candidate = pooled.get();
+                    if (candidate != null && ItemStack.areEqual(candidate, stack)) {
+                        result[0] = candidate;
+                        hits.incrementAndGet();
+                        return bucket;
+                    }
+                }
+            }
+
+            List<PooledStack> updated = bucket != null ? bucket : new ArrayList<>(1);
+            result[0] = stack.copy();
+            updated.add(new PooledStack(result[0], hash));
+            return updated;
+        });
+        return result[0];
+    }
+
+    public static Metrics getMetrics() {
+        expungeCleared();
+        int pooled = BUCKETS.values().stream().mapToInt(List::size).sum();
+        return new Metrics(pooled, lookups.get(), hits.get());
+    }
+
+    /**
+     * Item, components and count; the same content always hashes the same.
+     */
+    private static int contentHash(ItemStack stack) {
+        return 31 * ItemStack.hashCode(stack) + stack.getCount();
+    }
+
+    /**
+     * Removes pool entries whose stack is no longer held by any share.
+     */
+    private static void expungeCleared() {
+        Reference<? extends ItemStack> cleared;
+        while ((cleared = CLEARED.poll()) != null) {
+            PooledStack pooled = (PooledStack) cleared;
+            BUCKETS.computeIfPresent(pooled.hash, (key, bucket) -> {
+                bucket.remove(pooled);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+}
@@ -5,7 +5,7 @@ import com.showcase.gui.MapViewerContext;
 import com.showcase.gui.MapViewerGui;
 import com.showcase.utils.compat.ServerPlayerCompat;
 import eu.pb4.sgui.api.GuiHelpers;
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.fabric.api.event.player.*;
 import net.minecraft.component.DataComponentTypes;
 import net.minecraft.component.type.NbtComponent;
@@ -27,25 +27,8 @@ public final class MapViewer {
     private static final Map<UUID, ViewingSession> viewingSessions = new ConcurrentHashMap<>();
 
     static {
-        ServerTickEvents.END_SERVER_TICK.register(server -> {
-            if (viewingSessions.isEmpty()) return;
-
-            int currentTick = server.getTicks();
-            List<UUID> toRemove = new ArrayList<>();
-
-            for (var entry : viewingSessions.entrySet()) {
-                UUID playerId = entry.getKey();
-                ViewingSession session = entry.getValue();
-
-                ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerId);
-                if (player == null || currentTick >= session.autoRestoreTick) {
-                    closeSession(player);
-                    toRemove.add(playerId);
-                }
-            }
-
-            toRemove.forEach(viewingSessions::remove);
-        });
+        // The auto-restore timer would find no player to restore, so forget the session right away
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> handleMapViewerClose(handler.getPlayer()));
 
         #if MC_VER >= 1212
         UseItemCallback.EVENT.register((player, world, hand) -> (ActionResult) com.showcase.utils.compat.CallbackCompat.getUseItemCallbackResult(player, getCheckResult(player)));
@@ -74,12 +57,14 @@ public final class MapViewer {
         displayMap.set(DataComponentTypes.CUSTOM_DATA, NbtComponent.of(nbt));
 
         MapViewerContext context = new MapViewerContext(player, displayMap, displaySeconds);
-        context.setCloseCallback(() -> handleMapViewerClose(player, displayMap));
+        context.setCloseCallback(() -> handleMapViewerClose(player));
         
         MapViewerGui gui = new MapViewerGui(context, 0);
         gui.open();
 
-        viewingSessions.put(playerId, new ViewingSession(displayMap, ServerPlayerCompat.getWorld(player).getServer().getTicks() + displaySeconds * 20));
+        MinecraftServer server = ServerPlayerCompat.getWorld(player).getServer();
+        viewingSessions.put(playerId, new ViewingSession(displayMap,
+                TickScheduler.schedule(displaySeconds * 20, () -> autoRestore(server, playerId))));
     }
 
     public static void viewMap(ServerPlayerEntity player, ItemStack mapItem) {
@@ -93,11 +78,17 @@ public final class MapViewer {
         }
     }
 
-    private static void handleMapViewerClose(ServerPlayerEntity player, ItemStack mapItem) {
-        UUID playerId = player.getUuid();
+    private static void autoRestore(MinecraftServer server, UUID playerId) {
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerId);
+        closeSession(player);
         viewingSessions.remove(playerId);
     }
 
+    private static void handleMapViewerClose(ServerPlayerEntity player) {
+        ViewingSession session = viewingSessions.remove(player.getUuid());
+        if (session != null) session.autoRestore().cancel();
+    }
+
     public static boolean isPlayerViewingMap(ServerPlayerEntity player) {
         return viewingSessions.containsKey(player.getUuid());
     }
@@ -109,11 +100,7 @@ public final class MapViewer {
         if (currentGui instanceof MapViewerGui viewerGui) {
             viewerGui.close();
         } else {
-            UUID playerId = player.getUuid();
-            ViewingSession session = viewingSessions.get(playerId);
-            if (session != null) {
-                handleMapViewerClose(player, session.displayMap);
-            }
+            handleMapViewerClose(player);
         }
     }
 
@@ -124,6 +111,7 @@ public final class MapViewer {
                 closeSession(player);
             }
         }
+        viewingSessions.values().forEach(session -> session.autoRestore().cancel());
         viewingSessions.clear();
     }
 
@@ -136,9 +124,10 @@ public final class MapViewer {
         ViewingSession session = viewingSessions.get(playerId);
         if (session == null) return false;
 
-        int currentTick = ServerPlayerCompat.getWorld(player).getServer().getTicks();
-        int newTick = currentTick + additionalSeconds * 20;
-        viewingSessions.put(playerId, new ViewingSession(session.displayMap, newTick));
+        MinecraftServer server = ServerPlayerCompat.getWorld(player).getServer();
+        session.autoRestore().cancel();
+        viewingSessions.put(playerId, new ViewingSession(session.displayMap,
+                TickScheduler.schedule(additionalSeconds * 20, () -> autoRestore(server, playerId))));
         return true;
     }
 
@@ -146,9 +135,8 @@ public final class MapViewer {
         ViewingSession session = viewingSessions.get(player.getUuid());
         if (session == null) return 0;
 
-        int currentTick = ServerPlayerCompat.getWorld(player).getServer().getTicks();
-        return Math.max(0, (session.autoRestoreTick - currentTick) / 20);
+        return session.autoRestore().getRemainingTicks() / 20;
     }
 
-    private record ViewingSession(ItemStack displayMap, int autoRestoreTick) {}
+    private record ViewingSession(ItemStack displayMap, TickScheduler.Timer autoRestore) {}
 }
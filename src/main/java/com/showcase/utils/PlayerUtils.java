@@ -5,6 +5,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.mojang.authlib.GameProfile;
 import com.showcase.ShowcaseMod;
+import com.showcase.data.IoExecutor;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.MutableText;
@@ -14,9 +15,15 @@ import net.minecraft.util.UserCache;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class PlayerUtils {
+    private static final long USER_CACHE_FILE_REFRESH_MS = 60_000;
+    private static final Map<UUID, String> USER_CACHE_FILE_NAMES = new ConcurrentHashMap<>();
+    private static final AtomicLong userCacheFileReadAt = new AtomicLong(-USER_CACHE_FILE_REFRESH_MS);
+
     public static Set<UUID> getReceiverUuids(Collection<ServerPlayerEntity> receivers) {
         if (receivers  == null) return null;
         return receivers.stream().map(ServerPlayerEntity::getUuid).collect(Collectors.toSet());
@@ -60,31 +67,44 @@ public class PlayerUtils {
         return Optional.empty();
     }
 
+    /**
+     * Looks a name up in the last read of {@code usercache.json}. A miss queues a re-read on the
+     * I/O executor, so the file is never read on the calling thread.
+     */
     public static Optional<String> getPlayerNameFromUserCacheFile(MinecraftServer server, UUID uuid) {
-        try {
-            Path worldPath = server.getSavePath(net.minecraft.util.WorldSavePath.ROOT);
-            Path userCachePath = worldPath.resolve("usercache.json");
+        String name = USER_CACHE_FILE_NAMES.get(uuid);
+        if (name == null) refreshUserCacheFile(server);
+        return Optional.ofNullable(name);
+    }
+
+    /**
+     * Re-reads {@code usercache.json} on the I/O executor, at most once per refresh interval.
+     *
+     * @param server the server whose world directory holds the file
+     */
+    public static void refreshUserCacheFile(MinecraftServer server) {
+        long now = System.currentTimeMillis();
+        long last = userCacheFileReadAt.get();
+        if (now - last < USER_CACHE_FILE_REFRESH_MS || !userCacheFileReadAt.compareAndSet(last, now)) return;
 
-            if (Files.exists(userCachePath)) {
-                String content = Files.readString(userCachePath);
-                JsonObject[] entries = JsonParser.parseString(content).getAsJsonArray()
-                        .asList().stream()
-                        .map(JsonElement::getAsJsonObject)
-                        .toArray(JsonObject[]::new);
+        Path userCachePath = server.getSavePath(net.minecraft.util.WorldSavePath.ROOT).resolve("usercache.json");
+        IoExecutor.submit(userCachePath, () -> readUserCacheFile(userCachePath));
+    }
+
+    private static void readUserCacheFile(Path userCachePath) {
+        try {
+            if (!Files.exists(userCachePath)) return;
 
-                for (JsonObject entry : entries) {
-                    if (entry.has("uuid") && entry.has("name")) {
-                        String entryUuid = entry.get("uuid").getAsString();
-                        if (uuid.toString().equals(entryUuid)) {
-                            return Optional.of(entry.get("name").getAsString());
-                        }
-                    }
+            String content = Files.readString(userCachePath);
+            for (JsonElement element : JsonParser.parseString(content).getAsJsonArray()) {
+                JsonObject entry = element.getAsJsonObject();
+                if (entry.has("uuid") && entry.has("name")) {
+                    USER_CACHE_FILE_NAMES.put(UUID.fromString(entry.get("uuid").getAsString()), entry.get("name").getAsString());
                 }
             }
         } catch (Exception e) {
             ShowcaseMod.LOGGER.error("Error reading usercache.json: {}", e.getMessage());
         }
-        return Optional.empty();
     }
 
     public static Optional<String> getPlayerNameFromUuid(MinecraftServer server, UUID uuid) {
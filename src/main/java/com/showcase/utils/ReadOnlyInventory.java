@@ -70,6 +70,17 @@ public class ReadOnlyInventory extends SimpleInventory {
         return result;
     }
 
+    /**
+     * Stores the pooled instance of the stack, see {@link ItemStackPool}. The given stack is not
+     * retained, so callers do not need to copy it.
+     */
+    @Override
+    public void setStack(int slot, ItemStack stack) {
+        // An over-sized stack gets its count capped in place, which a shared instance must never be
+        ItemStack held = stack.getCount() <= getMaxCount(stack) ? ItemStackPool.intern(stack) : stack.copy();
+        super.setStack(slot, held);
+    }
+
     @Override
     public ItemStack removeStack(int slot, int amount) {
         return ItemStack.EMPTY;
@@ -19,6 +19,7 @@ public final class ShareConstants {
     public static final String MERCHANT = "merchant";
     public static final String CANCEL = "cancel";
     public static final String VIEW = "view";
+    public static final String INBOX = "inbox";
 
     // Placeholder identifiers
     public static final class PlaceholderIds {
@@ -0,0 +1,81 @@
+package com.showcase.utils;
+
+import com.showcase.command.ShowcaseManager.ShareType;
+import net.minecraft.item.ItemStack;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers each player's most recent snapshot per share type, so sharing the same inventory again
+ * reuses the earlier snapshot instead of holding another one.
+ * <p>
+ * Snapshots are never modified after creation, so several shares can hold the same instance. Only
+ * weak references are kept; a snapshot is forgotten once every share holding it has expired.
+ */
+public final class SnapshotCache {
+    private record Key(UUID owner, ShareType type) {}
+
+    private static final Map<Key, WeakReference<ReadOnlyInventory>> LATEST = new ConcurrentHashMap<>();
+    private static final AtomicLong reused = new AtomicLong();
+
+    private SnapshotCache() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Returns the player's previous snapshot of this type if it has the same contents, otherwise
+     * remembers and returns the new one.
+     *
+     * @param owner the player who shared the snapshot
+     * @param type the share type
+     * @param snapshot the freshly taken snapshot
+     * @return the snapshot the new share should hold
+     */
+    public static ReadOnlyInventory reuse(UUID owner, ShareType type, ReadOnlyInventory snapshot) {
+        Key key = new Key(owner, type);
+        WeakReference<ReadOnlyInventory> previousRef = LATEST.get(key);
+        ReadOnlyInventory previous = previousRef != null ? previousRef.get() : null;
+
+        if (previous != null && sameContents(previous, snapshot)) {
+            reused.incrementAndGet();
+            return previous;
+        }
+
+        LATEST.put(key, new WeakReference<>(snapshot));
+        return snapshot;
+    }
+
+    /**
+     * Forgets snapshots no share holds any more.
+     */
+    public static void cleanup() {
+        LATEST.values().removeIf(ref -> ref.get() == null);
+    }
+
+    /**
+     * @return shares created since startup that reused an earlier snapshot
+     */
+    public static long getReusedCount() {
+        return reused.get();
+    }
+
+    private static boolean sameContents(ReadOnlyInventory a, ReadOnlyInventory b) {
+        if (a.size() != b.size() || a.getType() != b.getType() || !a.getName().equals(b.getName())) {
+            return false;
+        }
+
+        for (int i = 0; i < a.size(); i++) {
+            ItemStack left = a.getStack(i);
+            ItemStack right = b.getStack(i);
+            // Equal stacks are usually the same pooled instance already
+            if (left != right && !ItemStack.areEqual(left, right)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,6 +2,7 @@ package com.showcase.utils;
 
 import com.showcase.ShowcaseMod;
 
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.Map;
@@ -113,6 +114,15 @@ public class StatisticsCache {
         cache.entrySet().removeIf(entry -> entry.getKey().contains(pattern));
     }
 
+    /**
+     * Remove all cache entries matching any of several patterns in one pass
+     * @param patterns Patterns to match (simple contains check)
+     */
+    public void removePatterns(Collection<String> patterns) {
+        if (patterns.isEmpty()) return;
+        cache.entrySet().removeIf(entry -> patterns.stream().anyMatch(entry.getKey()::contains));
+    }
+
     /**
      * Clear all cached entries
      */
@@ -0,0 +1,179 @@
+package com.showcase.utils;
+
+import com.showcase.ShowcaseMod;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+
+/**
+ * Runs tasks a number of server ticks from now, for timeouts and countdowns that would otherwise
+ * each need their own tick loop.
+ * <p>
+ * Timers are kept in a hashed timing wheel: an array of slots indexed by deadline tick, each holding
+ * a linked list of the timers due in that slot. Every tick only visits the slot for the current
+ * tick, so the work done is proportional to the timers firing, plus the few in that slot that are
+ * due in a later turn of the wheel. Scheduling and cancelling are constant time.
+ * <p>
+ * Timers are scheduled, cancelled and run on the server thread. Time spent running them counts
+ * towards Showcase's share of MSPT, see {@link TickWorkScheduler}.
+ */
+public final class TickScheduler {
+    private static final int WHEEL_SIZE = 1024; // about 51 seconds, longer timers wait for later turns
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private static final Timer[] WHEEL = new Timer[WHEEL_SIZE];
+    private static long currentTick = 0;
+    private static int pending = 0;
+
+    /**
+     * A scheduled task.
+     */
+    public static final class Timer {
+        private final Runnable task;
+        private final long deadline;
+        private Timer previous;
+        private Timer next;
+        private Timer nextDue;
+        private boolean linked = true;
+        private boolean done = false;
+
+        private Timer(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Stops the task from running.
+         *
+         * @return true if the timer was still pending
+         */
+        public boolean cancel() {
+            if (done) return false;
+            done = true;
+            if (linked) unlink(this);
+            return true;
+        }
+
+        public boolean isPending() {
+            return !done;
+        }
+
+        /**
+         * @return ticks until the task runs, or 0 if it has run or was cancelled
+         */
+        public int getRemainingTicks() {
+            return done ? 0 : (int) Math.max(0, deadline - currentTick);
+        }
+    }
+
+    private TickScheduler() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static void registerTickEvent() {
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            long start = System.nanoTime();
+            tick();
+            TickWorkScheduler.recordTickWork(System.nanoTime() - start);
+        });
+    }
+
+    /**
+     * Runs a task after the given number of ticks.
+     *
+     * @param delayTicks ticks to wait, at least 1
+     * @param task the task to run on the server thread
+     * @return the timer, which can be cancelled
+     */
+    public static Timer schedule(int delayTicks, Runnable task) {
+        Timer timer = new Timer(task, currentTick + Math.max(1, delayTicks));
+        int slot = slotOf(timer.deadline);
+        Timer head = WHEEL[slot];
+        timer.next = head;
+        if (head != null) head.previous = timer;
+        WHEEL[slot] = timer;
+        pending++;
+        return timer;
+    }
+
+    // Package-private so tests can drive the wheel without a server
+    static void tick() {
+        currentTick++;
+        if (pending == 0) return;
+
+        // Take the due timers out first, so tasks can freely schedule and cancel
+        Timer due = null;
+        Timer timer = WHEEL[slotOf(currentTick)];
+        while (timer != null) {
+            Timer next = timer.next;
+            if (timer.deadline <= currentTick) {
+                unlink(timer);
+                timer.nextDue = due;
+                due = timer;
+            }
+            timer = next;
+        }
+
+        while (due != null) {
+            Timer firing = due;
+            due = firing.nextDue;
+            firing.nextDue = null;
+            if (firing.done) continue;
+
+            firing.done = true;
+            try {
+                firing.task.run();
+            } catch (Exception e) {
+                ShowcaseMod.LOGGER.error("Error in scheduled tick task", e);
+            }
+        }
+    }
+
+    private static void unlink(Timer timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            WHEEL[slotOf(timer.deadline)] = timer.next;
+        }
+        if (timer.next != null) timer.next.previous = timer.previous;
+        timer.previous = null;
+        timer.next = null;
+        timer.linked = false;
+        pending--;
+    }
+
+    private static int slotOf(long tick) {
+        return (int) (tick & MASK);
+    }
+
+    /**
+     * @return ticks run since startup
+     */
+    public static long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * @return timers waiting to run
+     */
+    public static int getPendingCount() {
+        return pending;
+    }
+
+    /**
+     * Drops every pending timer without running it.
+     */
+    public static void clear() {
+        for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+            Timer timer = WHEEL[slot];
+            while (timer != null) {
+                Timer next = timer.next;
+                timer.previous = null;
+                timer.next = null;
+                timer.linked = false;
+                timer.done = true;
+                timer = next;
+            }
+            WHEEL[slot] = null;
+        }
+        pending = 0;
+    }
+}
@@ -0,0 +1,186 @@
+package com.showcase.utils;
+
+import com.showcase.ShowcaseMod;
+import com.showcase.config.ModConfigManager;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs Showcase's deferrable server-thread work within a per-tick time budget.
+ * <p>
+ * Work can be posted from any thread. Background tasks do their expensive part, such as finding
+ * expired shares, off-thread and post the resulting change here, so shares, cooldowns and
+ * statistics only ever have one writer. The server thread posts work that does not have to finish
+ * in the current tick, such as building and opening screens. Posting never blocks.
+ * <p>
+ * At the end of every tick the server thread runs queued work in order until the queue is empty or
+ * the configured budget is used up; whatever is left rolls over to the next tick. Work posted while
+ * no server is running is dropped rather than run on the posting thread, since it would race the
+ * server thread of a starting or stopping server and the final save has already run.
+ * <p>
+ * Time spent here and in other measured Showcase tick work is compared with the length of the
+ * whole tick, giving the share of MSPT Showcase consumes.
+ */
+public final class TickWorkScheduler {
+    // Weight of the latest tick in the moving averages, about the last 100 ticks (5 seconds)
+    private static final double AVERAGE_WEIGHT = 0.02;
+
+    private static final Queue<Runnable> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger depth = new AtomicInteger();
+    private static volatile boolean open = false;
+
+    private static final AtomicLong completed = new AtomicLong();
+    private static final AtomicLong deferredTicks = new AtomicLong();
+    private static volatile long lastDrainNanos = 0;
+    private static final AtomicLong maxDrainNanos = new AtomicLong();
+
+    // Server thread only
+    private static long tickStartNanos = 0;
+    private static long showcaseNanosThisTick = 0;
+    private static volatile double averageTickNanos = 0;
+    private static volatile double averageShowcaseNanos = 0;
+
+    /**
+     * Snapshot of the scheduler counters.
+     *
+     * @param queueDepth work waiting to run
+     * @param completed work run since startup
+     * @param deferredTicks ticks that ran out of budget before the queue was empty
+     * @param lastDrainMs time spent running queued work in the most recent tick that had any
+     * @param maxDrainMs worst time spent running queued work in one tick
+     * @param averageTickMs average length of a server tick, excluding the wait for the next one
+     * @param averageShowcaseMs average time per tick spent in measured Showcase work
+     */
+    public record Metrics(int queueDepth, long completed, long deferredTicks, double lastDrainMs, double maxDrainMs,
+                          double averageTickMs, double averageShowcaseMs) {
+        public double msptShare() {
+            return averageTickMs == 0 ? 0 : averageShowcaseMs / averageTickMs;
+        }
+    }
+
+    private TickWorkScheduler() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Must be registered before other Showcase tick handlers, so the tick length covers them.
+     */
+    public static void registerTickStart() {
+        ServerTickEvents.START_SERVER_TICK.register(server -> tickStartNanos = System.nanoTime());
+    }
+
+    /**
+     * Must be registered after other Showcase tick handlers, so the drain and the tick length cover
+     * the work they record at the end of the tick.
+     */
+    public static void registerTickEnd() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> endTick());
+    }
+
+    /**
+     * Starts deferring work to the server thread.
+     */
+    public static void open() {
+        QUEUE.clear();
+        depth.set(0);
+        open = true;
+    }
+
+    /**
+     * Runs all queued work, regardless of budget, and stops deferring. Must run on the server
+     * thread before the final save.
+     */
+    public static void close() {
+        open = false;
+        drain(Long.MAX_VALUE);
+    }
+
+    /**
+     * Runs work on the server thread at the end of the current or a later tick. Work posted while the
+     * scheduler is closed is dropped.
+     *
+     * @param work the work, which must not block
+     */
+    public static void post(@NotNull Runnable work) {
+        if (!open) {
+            ShowcaseMod.LOGGER.debug("Dropping Showcase work posted while no server is running");
+            return;
+        }
+        QUEUE.offer(work);
+        depth.incrementAndGet();
+    }
+
+    /**
+     * Counts server thread time spent in Showcase work that does not go through the queue.
+     *
+     * @param nanos the time spent
+     */
+    public static void recordTickWork(long nanos) {
+        showcaseNanosThisTick += nanos;
+    }
+
+    private static void endTick() {
+        long budgetMicros = ModConfigManager.getTickBudgetMicros();
+        showcaseNanosThisTick += drain(budgetMicros > 0 ? budgetMicros * 1000 : Long.MAX_VALUE);
+
+        long tickNanos = System.nanoTime() - tickStartNanos;
+        averageTickNanos += (tickNanos - averageTickNanos) * AVERAGE_WEIGHT;
+        averageShowcaseNanos += (showcaseNanosThisTick - averageShowcaseNanos) * AVERAGE_WEIGHT;
+        showcaseNanosThisTick = 0;
+    }
+
+    /**
+     * @return the time spent
+     */
+    private static long drain(long budgetNanos) {
+        if (depth.get() == 0) return 0;
+
+        long start = System.nanoTime();
+        Runnable work;
+        while ((work = QUEUE.poll()) != null) {
+            depth.decrementAndGet();
+            run(work);
+            completed.incrementAndGet();
+            if (System.nanoTime() - start >= budgetNanos) break;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        lastDrainNanos = elapsed;
+        maxDrainNanos.accumulateAndGet(elapsed, Math::max);
+        if (!QUEUE.isEmpty()) deferredTicks.incrementAndGet();
+        return elapsed;
+    }
+
+    private static void run(Runnable work) {
+        try {
+            work.run();
+        } catch (Exception e) {
+            ShowcaseMod.LOGGER.error("Error running deferred Showcase work", e);
+        }
+    }
+
+    /**
+     * @return work waiting to run
+     */
+    public static int getQueueDepth() {
+        return depth.get();
+    }
+
+    @NotNull
+    public static Metrics getMetrics() {
+        return new Metrics(
+                depth.get(),
+                completed.get(),
+                deferredTicks.get(),
+                lastDrainNanos / 1_000_000.0,
+                maxDrainNanos.get() / 1_000_000.0,
+                averageTickNanos / 1_000_000.0,
+                averageShowcaseNanos / 1_000_000.0
+        );
+    }
+}
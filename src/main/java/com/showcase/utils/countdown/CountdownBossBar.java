@@ -22,6 +22,7 @@ public class CountdownBossBar {
     }
 
     private CountdownCallback callback;
+    private Runnable pauseListener;
     private int lastSecond = -1;
 
     public CountdownBossBar(ServerPlayerEntity player, Text title, int seconds) {
@@ -66,17 +67,33 @@ public class CountdownBossBar {
     }
 
     public void pause() {
-        if (isRunning && !isFinished) {
+        if (isRunning && !isFinished && !isPaused) {
+            notifyPauseChange();
             this.isPaused = true;
         }
     }
 
     public void resume() {
-        if (isRunning && !isFinished) {
+        if (isRunning && !isFinished && isPaused) {
+            notifyPauseChange();
             this.isPaused = false;
         }
     }
 
+    /**
+     * Sets a listener run right before the countdown is paused or resumed, so a caller using
+     * {@link #advance(int)} can account for the ticks that passed in the previous state.
+     */
+    void setPauseListener(Runnable pauseListener) {
+        this.pauseListener = pauseListener;
+    }
+
+    private void notifyPauseChange() {
+        if (pauseListener != null) {
+            pauseListener.run();
+        }
+    }
+
     public void setTimeLeft(int seconds) {
         if (seconds < 0) {
             seconds = 0;
@@ -118,6 +135,45 @@ public class CountdownBossBar {
         }
     }
 
+    /**
+     * Advances the countdown by several ticks at once, for callers that only wake up when the
+     * displayed second changes.
+     *
+     * @param elapsedTicks ticks since the previous call
+     * @return ticks until the displayed second next changes, or 0 once the countdown has ended
+     */
+    public int advance(int elapsedTicks) {
+        if (!isRunning || isFinished) {
+            return 0;
+        }
+
+        if (player == null || player.isRemoved()) {
+            stop();
+            return 0;
+        }
+
+        if (isPaused) {
+            return 20;
+        }
+
+        if (ticksLeft <= 0) {
+            complete();
+            return 0;
+        }
+
+        ticksLeft = Math.max(0, ticksLeft - elapsedTicks);
+        updateBossBar();
+
+        int currentSecond = getSecondsLeft();
+        if (currentSecond != lastSecond && callback != null) {
+            callback.onSecondTick(currentSecond);
+            lastSecond = currentSecond;
+        }
+
+        // Completes on the call after reaching zero, as with tick()
+        return ticksLeft > 0 ? (ticksLeft - 1) % 20 + 1 : 1;
+    }
+
     private void complete() {
         if (isFinished) {
             return;
@@ -177,6 +233,7 @@ public class CountdownBossBar {
         this.bossBar = null;
         this.player = null;
         this.callback = null;
+        this.pauseListener = null;
     }
 
     public int getSecondsLeft() {
@@ -1,48 +1,86 @@
 package com.showcase.utils.countdown;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import com.showcase.utils.TickScheduler;
 
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Drives running countdown bars through the {@link TickScheduler}. Each bar is only woken when its
+ * displayed second changes, rather than every tick, and is advanced by the ticks that actually
+ * passed since it was last advanced. Pausing or resuming a bar settles the ticks spent in the
+ * previous state first.
+ */
 public class CountdownBossBarManager {
-    private static final Set<CountdownBossBar> bars = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    public static void registerTickEvent() {
-        ServerTickEvents.START_SERVER_TICK.register(server -> {
-            Iterator<CountdownBossBar> iterator = bars.iterator();
-            while (iterator.hasNext()) {
-                CountdownBossBar bar = iterator.next();
-                if (!bar.isRunning() || bar.isFinished()) {
-                    bar.destroy();
-                    iterator.remove();
-                    continue;
-                }
-                bar.tick();
-            }
-        });
-    }
+    /**
+     * @param timer the pending wake-up
+     * @param since the tick the bar was last advanced at
+     */
+    private record Scheduled(TickScheduler.Timer timer, long since) {}
+
+    private static final Map<CountdownBossBar, Scheduled> bars = new ConcurrentHashMap<>();
 
     public static void add(CountdownBossBar bar) {
-        if (bar != null) {
-            bars.add(bar);
+        if (bar != null && !bars.containsKey(bar)) {
+            bar.setPauseListener(() -> settle(bar));
+            bars.put(bar, schedule(bar, 1));
         }
     }
 
+    private static Scheduled schedule(CountdownBossBar bar, int delayTicks) {
+        return new Scheduled(TickScheduler.schedule(delayTicks, () -> advance(bar)), TickScheduler.getCurrentTick());
+    }
+
+    private static void advance(CountdownBossBar bar) {
+        Scheduled scheduled = bars.get(bar);
+        if (scheduled == null) return;
+
+        int nextTicks = bar.advance((int) (TickScheduler.getCurrentTick() - scheduled.since()));
+        if (nextTicks <= 0) {
+            // A completion callback may already have removed and destroyed it
+            if (bars.remove(bar) != null) bar.destroy();
+            return;
+        }
+        bars.computeIfPresent(bar, (key, current) -> schedule(bar, nextTicks));
+    }
+
+    /**
+     * Applies the ticks spent in the current pause state and wakes the bar on the next tick, when
+     * it works out its next change in the new state.
+     */
+    private static void settle(CountdownBossBar bar) {
+        Scheduled scheduled = bars.get(bar);
+        if (scheduled == null) return;
+
+        scheduled.timer().cancel();
+        if (TickScheduler.getCurrentTick() > scheduled.since()) {
+            advance(bar);
+        }
+        bars.computeIfPresent(bar, (key, current) -> {
+            current.timer().cancel();
+            return schedule(bar, 1);
+        });
+    }
+
     public static void remove(CountdownBossBar bar) {
         if (bar != null) {
-            bars.remove(bar);
+            Scheduled scheduled = bars.remove(bar);
+            if (scheduled != null) scheduled.timer().cancel();
             bar.destroy();
         }
     }
 
     public static void cleanup() {
-        bars.forEach(CountdownBossBar::destroy);
+        bars.forEach((bar, scheduled) -> {
+            scheduled.timer().cancel();
+            bar.destroy();
+        });
         bars.clear();
     }
 
     public static Set<CountdownBossBar> getBars() {
-        return Collections.unmodifiableSet(bars);
+        return Collections.unmodifiableSet(bars.keySet());
     }
 }
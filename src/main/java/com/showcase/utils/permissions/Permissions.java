@@ -13,6 +13,7 @@ public final class Permissions {
     public enum CommandType {
         VIEW(ShareConstants.VIEW.toLowerCase()),
         CANCEL(ShareConstants.CANCEL.toLowerCase()),
+        INBOX(ShareConstants.INBOX.toLowerCase()),
         ITEM(ShareConstants.ITEM.toLowerCase()),
         INVENTORY(ShareConstants.INVENTORY.toLowerCase()),
         HOTBAR(ShareConstants.HOTBAR.toLowerCase()),
@@ -64,6 +65,7 @@ public final class Permissions {
         public static final String MERCHANT = CommandType.MERCHANT.getPermission();
         public static final String STATS = CommandType.STATS.getPermission();
         public static final String CANCEL = CommandType.CANCEL.getPermission();
+        public static final String INBOX = CommandType.INBOX.getPermission();
 
         private Command() {}
     }
@@ -73,6 +75,8 @@ public final class Permissions {
         public static final String RELOAD = node(MANAGE, "reload");
         public static final String LIST = node(MANAGE, "list");
         public static final String CANCEL = node(MANAGE, "cancel");
+        public static final String STORAGE = node(MANAGE, "storage");
+        public static final String BULK = node(MANAGE, "bulk");
         
         private Manage() {}
     }
@@ -104,7 +104,7 @@ public class ItemIconProvider {
             return Text.empty();
         }
         
-        ReadOnlyInventory inventory = shareEntry.getInventory();
+        ReadOnlyInventory inventory = shareEntry.getLoadedInventory();
         if (inventory == null) {
             return Text.empty();
         }
@@ -0,0 +1,191 @@
+package com.showcase.data;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Crash recovery of {@link EmbeddedStore}: torn tails, damaged records and headers, and compaction.
+ */
+class EmbeddedStoreTest {
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void bootstrap() {
+        // The store logs through ShowcaseMod, whose codecs need the registries
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void reopenKeepsCommittedBatches() throws IOException {
+        Path file = dir.resolve("store.db");
+        try (EmbeddedStore store = EmbeddedStore.open(file)) {
+            store.commit(Map.of("a", bytes("alpha"), "b", bytes("beta")), List.of());
+            store.commit(Map.of("c", bytes("gamma")), List.of("a"));
+        }
+
+        try (EmbeddedStore store = EmbeddedStore.open(file)) {
+            assertNull(store.get("a"));
+            assertArrayEquals(bytes("beta"), store.get("b"));
+            assertArrayEquals(bytes("gamma"), store.get("c"));
+            assertEquals(2, store.keyCount());
+        }
+    }
+
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        Path file = dir.resolve("store.db");
+        long committed;
+        try (EmbeddedStore store = EmbeddedStore.open(file)) {
+            store.commit(Map.of("a", bytes("alpha")), List.of());
+            committed = store.fileSize();
+            store.commit(Map.of("b", bytes("beta"), "c", bytes("gamma")), List.of());
+        }
+
+        // A crash in the middle of the second batch leaves part of it on disk
+        for (long cut = committed + 1; cut < Files.size(file); cut += 7) {
+            Path torn = dir.resolve("torn-" + cut + ".db");
+            Files.copy(file, torn);
+            try (FileChannel channel = FileChannel.open(torn, StandardOpenOption.WRITE)) {
+                channel.truncate(cut);
+            }
+
+            try (EmbeddedStore store = EmbeddedStore.open(torn)) {
+                assertArrayEquals(bytes("alpha"), store.get("a"), "cut at " + cut);
+                assertNull(store.get("b"), "cut at " + cut);
+                assertNull(store.get("c"), "cut at " + cut);
+                assertEquals(committed, store.fileSize(), "cut at " + cut);
+            }
+            assertTrue(corruptBackups(torn).isEmpty(), "cut at " + cut);
+        }
+    }
+
+    @Test
+    void damagedRecordDropsItsWholeBatch() throws IOException {
+        Path file = dir.resolve("store.db");
+        try (EmbeddedStore store = EmbeddedStore.open(file)) {
+            store.commit(Map.of("a", bytes("alpha")), List.of());
+            store.commit(Map.of("b", bytes("beta-damaged"), "c", bytes("gamma")), List.of("a"));
+            store.commit(Map.of("d", bytes("delta")), List.of());
+        }
+        flipByte(file, "beta-damaged");
+
+        try (EmbeddedStore store = EmbeddedStore.open(file)) {
+            // Neither the damaged put nor the rest of its batch is applied, later batches are
+            assertArrayEquals(bytes("alpha"), store.get("a"));
+            assertNull(store.get("b"));
+            assertNull(store.get("c"));
+            assertArrayEquals(bytes("delta"), store.get("d"));
+        }
+
+        Path quarantine = DataQuarantine.getQuarantinePath(file);
+        assertTrue(Files.exists(quarantine));
+        List<String> lines = Files.readAllLines(quarantine);
+        assertEquals(3, lines.size());
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"key\":\"c\"")));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"key\":\"a\"") && line.contains("Delete")));
+    }
+
+    @Test
+    void damagedLengthKeepsLaterBatchesInBackup() throws IOException {
+        Path file = dir.resolve("store.db");
+        long committed;
+        try (EmbeddedStore store = EmbeddedStore.open(file)) {
+            store.commit(Map.of("a", bytes("alpha")), List.of());
+            committed = store.fileSize();
+            store.commit(Map.of("b", bytes("beta-framed")), List.of());
+            store.commit(Map.of("c", bytes("gamma-after")), List.of());
+        }
+
+        // Flip a bit in the value length of "b", which sits before its header checksum and key
+        byte[] content = Files.readAllBytes(file);
+        int valueStart = indexOf(content, bytes("beta-framed"));
+        content[valueStart - 1 - 4 - 4] ^= 0x01;
+        Files.write(file, content);
+
+        try (EmbeddedStore store = EmbeddedStore.open(file)) {
+            assertArrayEquals(bytes("alpha"), store.get("a"));
+            assertNull(store.get("b"));
+            assertNull(store.get("c"));
+            assertEquals(committed, store.fileSize());
+        }
+
+        // The batches after the damage are not lost, they are kept next to the store
+        List<Path> backups = corruptBackups(file);
+        assertEquals(1, backups.size());
+        byte[] backup = Files.readAllBytes(backups.getFirst());
+        assertEquals(content.length - committed, backup.length);
+        assertTrue(indexOf(backup, bytes("gamma-after")) >= 0);
+
+        // The store was cut back to its intact part, so reopening finds nothing more to back up
+        try (EmbeddedStore store = EmbeddedStore.open(file)) {
+            assertArrayEquals(bytes("alpha"), store.get("a"));
+        }
+        assertEquals(1, corruptBackups(file).size());
+    }
+
+    @Test
+    void compactionKeepsLiveValues() throws IOException {
+        Path file = dir.resolve("store.db");
+        byte[] large = new byte[64 * 1024];
+        try (EmbeddedStore store = EmbeddedStore.open(file)) {
+            for (int round = 0; round < 40; round++) {
+                large[0] = (byte) round;
+                store.commit(Map.of("large", large.clone(), "round", bytes(String.valueOf(round))), List.of());
+            }
+            // Without compaction the file would hold all forty copies
+            assertTrue(store.fileSize() < 20L * large.length);
+        }
+
+        try (EmbeddedStore store = EmbeddedStore.open(file)) {
+            assertEquals(39, store.get("large")[0]);
+            assertArrayEquals(bytes("39"), store.get("round"));
+        }
+    }
+
+    private static void flipByte(Path file, String marker) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        int i = indexOf(content, bytes(marker));
+        assertTrue(i >= 0, "Marker " + marker + " not found in " + file);
+        content[i] ^= 0x20;
+        Files.write(file, content);
+    }
+
+    private static int indexOf(byte[] content, byte[] needle) {
+        for (int i = 0; i <= content.length - needle.length; i++) {
+            if (Arrays.equals(content, i, i + needle.length, needle, 0, needle.length)) return i;
+        }
+        return -1;
+    }
+
+    private static List<Path> corruptBackups(Path file) throws IOException {
+        String prefix = file.getFileName() + ".";
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(".corrupt");
+            }).toList();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
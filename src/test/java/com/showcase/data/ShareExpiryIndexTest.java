@@ -0,0 +1,79 @@
+package com.showcase.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShareExpiryIndexTest {
+
+    @Test
+    void pollDueReturnsDueSharesEarliestFirst() {
+        ShareExpiryIndex index = new ShareExpiryIndex();
+        index.schedule("c", 300);
+        index.schedule("a", 100);
+        index.schedule("later", 1_000);
+        index.schedule("b", 200);
+
+        assertEquals(List.of("a", "b", "c"), index.pollDue(500, 10));
+        assertEquals(1, index.size());
+        assertEquals(1_000, index.nextDeadline());
+    }
+
+    @Test
+    void pollDueStopsAtTheLimitAndKeepsTheRest() {
+        ShareExpiryIndex index = new ShareExpiryIndex();
+        for (int i = 0; i < 10; i++) {
+            index.schedule("share-" + i, 100 + i);
+        }
+
+        List<String> polled = new ArrayList<>(index.pollDue(200, 4));
+        assertEquals(List.of("share-0", "share-1", "share-2", "share-3"), polled);
+        polled.addAll(index.pollDue(200, 100));
+        assertEquals(10, polled.size());
+        assertTrue(index.pollDue(200, 100).isEmpty());
+    }
+
+    @Test
+    void rescheduledAndUnscheduledSharesAreNotPolledAtTheirOldDeadline() {
+        ShareExpiryIndex index = new ShareExpiryIndex();
+        index.schedule("moved", 100);
+        index.schedule("removed", 100);
+        index.schedule("kept", 150);
+
+        index.schedule("moved", 400);
+        index.unschedule("removed");
+
+        assertEquals(List.of("kept"), index.pollDue(200, 10));
+        assertEquals(List.of("moved"), index.pollDue(400, 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void expireNowMovesAShareToTheFront() {
+        ShareExpiryIndex index = new ShareExpiryIndex();
+        index.schedule("first", 100);
+        index.schedule("cancelled", 5_000);
+
+        index.expireNow("cancelled");
+
+        assertEquals(List.of("cancelled"), index.pollDue(50, 10));
+        assertEquals(List.of("first"), index.pollDue(100, 10));
+    }
+
+    @Test
+    void listenerIsToldEveryDeadline() {
+        ShareExpiryIndex index = new ShareExpiryIndex();
+        List<Long> deadlines = new ArrayList<>();
+        index.setListener(deadlines::add);
+
+        index.schedule("a", 100);
+        index.expireNow("a");
+        index.setListener(null);
+        index.schedule("b", 200);
+
+        assertEquals(List.of(100L, ShareExpiryIndex.IMMEDIATELY), deadlines);
+    }
+}
@@ -0,0 +1,75 @@
+package com.showcase.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShareIdAllocatorTest {
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    @Test
+    void idsAreUniqueAndWellFormed() {
+        ShareIdAllocator allocator = new ShareIdAllocator();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            String id = allocator.next("");
+            assertEquals(ShareIdAllocator.LENGTH, id.length());
+            assertTrue(id.chars().allMatch(c -> ALPHABET.indexOf(c) >= 0), id);
+            assertTrue(ids.add(id), "Duplicate ID " + id);
+        }
+    }
+
+    @Test
+    void idsStayUniqueAcrossTheCounterWrap() {
+        // Start just below the end of the scrambled range, so the counter crosses 2^BITS
+        ShareIdAllocator allocator = new ShareIdAllocator((1L << ShareIdAllocator.BITS) - 1_000, 42);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 2_000; i++) {
+            assertTrue(ids.add(allocator.next("")));
+        }
+    }
+
+    @Test
+    void idsAreUniqueUnderContention() throws Exception {
+        ShareIdAllocator allocator = new ShareIdAllocator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 50_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(allocator.next(""));
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void prefixIsPrepended() {
+        ShareIdAllocator allocator = new ShareIdAllocator(0, 0);
+        String id = allocator.next("eu1-");
+        assertTrue(id.startsWith("eu1-"));
+        assertEquals(4 + ShareIdAllocator.LENGTH, id.length());
+    }
+}
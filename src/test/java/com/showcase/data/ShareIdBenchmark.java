@@ -0,0 +1,86 @@
+package com.showcase.data;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Development benchmark comparing {@link ShareIdAllocator} against the truncated random UUIDs it
+ * replaced, on one thread and under contention. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class ShareIdBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int COUNT = 1_000_000;
+    private static final int THREADS = 8;
+
+    /**
+     * Generate IDs both ways and report the average cost of one ID
+     */
+    @Test
+    void compareGenerators() throws Exception {
+        ShareIdAllocator allocator = new ShareIdAllocator();
+        Supplier<String> uuidIds = () -> UUID.randomUUID().toString().substring(0, 8);
+        Supplier<String> allocatorIds = () -> allocator.next("");
+
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += generate(uuidIds, COUNT) + generate(allocatorIds, COUNT);
+        }
+
+        double uuidNs = measure(uuidIds, 1);
+        double allocatorNs = measure(allocatorIds, 1);
+        double uuidContendedNs = measure(uuidIds, THREADS);
+        double allocatorContendedNs = measure(allocatorIds, THREADS);
+
+        System.out.println("Share ID generation (per ID), " + COUNT + " IDs per thread:");
+        System.out.println("- Random UUID: " + String.format("%.0f", uuidNs) + "ns (1 thread), "
+                + String.format("%.0f", uuidContendedNs) + "ns (" + THREADS + " threads)");
+        System.out.println("- Allocator: " + String.format("%.0f", allocatorNs) + "ns (1 thread), "
+                + String.format("%.0f", allocatorContendedNs) + "ns (" + THREADS + " threads)");
+        System.out.println("- Speedup: " + String.format("%.1fx / %.1fx",
+                uuidNs / Math.max(allocatorNs, 1), uuidContendedNs / Math.max(allocatorContendedNs, 1))
+                + " (" + sink % 10 + ")");
+    }
+
+    /**
+     * @return wall-clock nanoseconds per ID with {@link #COUNT} IDs generated on each thread
+     */
+    private static double measure(Supplier<String> generator, int threads) throws Exception {
+        if (threads == 1) {
+            long start = System.nanoTime();
+            generate(generator, COUNT);
+            return (double) (System.nanoTime() - start) / COUNT;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>(threads);
+            long start = System.nanoTime();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> generate(generator, COUNT)));
+            }
+            for (Future<Long> result : results) {
+                result.get();
+            }
+            return (double) (System.nanoTime() - start) / ((long) COUNT * threads);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long generate(Supplier<String> generator, int count) {
+        long sink = 0;
+        for (int i = 0; i < count; i++) {
+            sink += generator.get().charAt(0);
+        }
+        return sink;
+    }
+}
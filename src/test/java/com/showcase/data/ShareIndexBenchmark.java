@@ -0,0 +1,93 @@
+package com.showcase.data;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Development benchmark comparing per-owner share lookups through {@link PlayerShareIndex}
+ * against the full scan they replaced. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class ShareIndexBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int SHARES = 100_000;
+    private static final int OWNERS = 1_000;
+    private static final int ITERATIONS = 20;
+
+    /**
+     * Build a synthetic share set and report the average cost of one per-owner query either way
+     */
+    @Test
+    void compareLookups() {
+        List<UUID> owners = new ArrayList<>(OWNERS);
+        for (int i = 0; i < OWNERS; i++) {
+            owners.add(UUID.randomUUID());
+        }
+
+        // Share ID -> owner, all the scan looks at
+        Map<String, UUID> shares = new HashMap<>(SHARES);
+        for (int i = 0; i < SHARES; i++) {
+            shares.put(UUID.randomUUID().toString(), owners.get(i % OWNERS));
+        }
+
+        PlayerShareIndex index = new PlayerShareIndex();
+        shares.forEach((id, owner) -> index.add(owner, id));
+
+        assertEquals(runScan(shares, owners), runIndex(shares, index, owners));
+
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += runScan(shares, owners) + runIndex(shares, index, owners);
+        }
+
+        long scanStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += runScan(shares, owners);
+        }
+        double scanNs = (double) (System.nanoTime() - scanStart) / ITERATIONS / OWNERS;
+
+        long indexStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += runIndex(shares, index, owners);
+        }
+        double indexNs = (double) (System.nanoTime() - indexStart) / ITERATIONS / OWNERS;
+
+        System.out.println("Per-owner share lookup, " + SHARES + " shares across " + OWNERS + " owners:");
+        System.out.println("- Full scan: " + String.format("%.0f", scanNs) + "ns");
+        System.out.println("- Owner index: " + String.format("%.0f", indexNs) + "ns");
+        System.out.println("- Speedup: " + String.format("%.1fx", scanNs / Math.max(indexNs, 1)) + " (" + sink % 10 + ")");
+    }
+
+    /**
+     * The lookup ShareRepository.getPlayerShares used to perform
+     */
+    private static long runScan(Map<String, UUID> shares, List<UUID> owners) {
+        long found = 0;
+        for (UUID owner : owners) {
+            String ownerString = owner.toString();
+            found += shares.values().stream()
+                    .filter(shareOwner -> shareOwner.toString().equals(ownerString))
+                    .toList()
+                    .size();
+        }
+        return found;
+    }
+
+    private static long runIndex(Map<String, UUID> shares, PlayerShareIndex index, List<UUID> owners) {
+        long found = 0;
+        for (UUID owner : owners) {
+            for (String shareId : index.get(owner)) {
+                if (shares.get(shareId) != null) found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,84 @@
+package com.showcase.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickSchedulerTest {
+
+    @BeforeEach
+    void reset() {
+        TickScheduler.clear();
+    }
+
+    @Test
+    void timersRunOnTheirDeadlineTick() {
+        long start = TickScheduler.getCurrentTick();
+        List<Long> fired = new ArrayList<>();
+        for (int delay : new int[] {1, 5, 20}) {
+            TickScheduler.schedule(delay, () -> fired.add(TickScheduler.getCurrentTick() - start));
+        }
+
+        advance(20);
+
+        assertEquals(List.of(1L, 5L, 20L), fired);
+        assertEquals(0, TickScheduler.getPendingCount());
+    }
+
+    @Test
+    void timersLongerThanTheWheelWaitForLaterTurns() {
+        long start = TickScheduler.getCurrentTick();
+        List<Long> fired = new ArrayList<>();
+        // 1024 slots: these share a slot with earlier deadlines and must skip the first turns
+        for (int delay : new int[] {3, 1024, 1027, 2048 + 3, 5000}) {
+            TickScheduler.schedule(delay, () -> fired.add(TickScheduler.getCurrentTick() - start));
+        }
+
+        advance(5000);
+
+        assertEquals(List.of(3L, 1024L, 1027L, 2051L, 5000L), fired);
+        assertEquals(0, TickScheduler.getPendingCount());
+    }
+
+    @Test
+    void cancelledTimersDoNotRun() {
+        List<String> fired = new ArrayList<>();
+        TickScheduler.Timer cancelled = TickScheduler.schedule(2, () -> fired.add("cancelled"));
+        TickScheduler.schedule(2, () -> fired.add("kept"));
+
+        assertTrue(cancelled.cancel());
+        advance(3);
+
+        assertEquals(List.of("kept"), fired);
+        assertFalse(cancelled.isPending());
+    }
+
+    @Test
+    void tasksCanScheduleFollowUpsAndCancelOtherDueTimers() {
+        long start = TickScheduler.getCurrentTick();
+        List<Long> fired = new ArrayList<>();
+        TickScheduler.Timer[] other = new TickScheduler.Timer[1];
+
+        TickScheduler.schedule(4, () -> {
+            other[0].cancel();
+            TickScheduler.schedule(4, () -> fired.add(TickScheduler.getCurrentTick() - start));
+        });
+        other[0] = TickScheduler.schedule(4, () -> fired.add(-1L));
+
+        advance(10);
+
+        // Whichever of the two due timers runs first, the follow-up runs 4 ticks later
+        assertTrue(fired.contains(8L));
+        assertEquals(0, TickScheduler.getPendingCount());
+    }
+
+    private static void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            TickScheduler.tick();
+        }
+    }
+}